@@ -0,0 +1,28 @@
+package com.junctionx.backend.bench;
+
+import com.junctionx.backend.sim.ml.ModelClient;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/** ModelClient that never leaves the JVM: scores are a stable hash of the ride id in [0, 100). */
+public class FixedScoreModelClient extends ModelClient {
+
+    public FixedScoreModelClient() {
+        super(new RestTemplateBuilder(), "http://127.0.0.1:9/prediction/", "bench");
+    }
+
+    @Override
+    public double scoreRide(String rideId) {
+        return Math.floorMod(rideId.hashCode() * 31 + 17, 10_000) / 100.0;
+    }
+
+    @Override
+    public Map<String, Double> scoreRides(Collection<String> rideIds) {
+        Map<String, Double> out = new HashMap<>(rideIds.size() * 2);
+        for (String id : rideIds) out.put(id, scoreRide(id));
+        return out;
+    }
+}
@@ -0,0 +1,42 @@
+package com.junctionx.backend.bench;
+
+import com.junctionx.backend.sim.util.H3Util;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** H3Util.kRing (long path) and kRings (REST string path) for a res-9 cell at k = 1..5. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class H3KRingsBenchmark {
+
+    @Param({"1", "2", "3", "4", "5"})
+    int k;
+
+    private H3Util h3;
+    private long center;
+    private String centerHex;
+
+    @Setup
+    public void setup() throws IOException {
+        h3 = new H3Util();
+        center = new SyntheticCity(1, 1, 0, 1L).hexes[0];
+        centerHex = H3Util.toAddress(center);
+    }
+
+    @Benchmark
+    public long[] kRing() {
+        return h3.kRing(center, k);
+    }
+
+    @Benchmark
+    public List<String> kRings() {
+        return h3.kRings(centerHex, k);
+    }
+}
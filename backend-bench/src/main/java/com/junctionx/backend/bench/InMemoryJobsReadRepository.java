@@ -0,0 +1,47 @@
+package com.junctionx.backend.bench;
+
+import com.junctionx.backend.repository.JobsReadRepository;
+import com.junctionx.backend.sim.dto.TripDTO;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** JobsReadRepository over a fixed trip list (sorted by start); no DataSource involved. */
+public class InMemoryJobsReadRepository extends JobsReadRepository {
+
+    private final List<TripDTO> trips;
+
+    public InMemoryJobsReadRepository(List<TripDTO> trips) {
+        super(null, 0);
+        this.trips = trips;
+    }
+
+    @Override
+    public List<TripDTO> findDriverTripsForDay(String driverId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        return trips.stream()
+                .filter(t -> t.driverId().equals(driverId) && inRange(t, dayStart, dayEnd))
+                .toList();
+    }
+
+    @Override
+    public List<TripDTO> findCityTripsForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        return trips.stream().filter(t -> inRange(t, dayStart, dayEnd)).toList();
+    }
+
+    @Override
+    public List<TripDTO> findWindowedCandidates(Integer cityId, OffsetDateTime fromTs, OffsetDateTime toTs,
+                                                long[] pickupHexes) {
+        Set<Long> hexes = new HashSet<>();
+        for (long h : pickupHexes) hexes.add(h);
+        return trips.stream()
+                .filter(t -> hexes.contains(t.pickupH3())
+                        && !t.startTs().isBefore(fromTs) && !t.startTs().isAfter(toTs))
+                .toList();
+    }
+
+    private static boolean inRange(TripDTO t, OffsetDateTime from, OffsetDateTime to) {
+        return !t.startTs().isBefore(from) && t.startTs().isBefore(to);
+    }
+}
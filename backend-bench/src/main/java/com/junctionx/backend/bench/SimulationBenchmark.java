@@ -0,0 +1,48 @@
+package com.junctionx.backend.bench;
+
+import com.junctionx.backend.sim.BaselineService;
+import com.junctionx.backend.sim.ClockMode;
+import com.junctionx.backend.sim.PlannerMode;
+import com.junctionx.backend.sim.SimulationService;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.util.H3Util;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Full simulateDay for one driver against a synthetic in-memory city-day. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Param({"5000"})
+    int trips;
+
+    @Param({"STEP", "NEXT_EVENT"})
+    ClockMode clock;
+
+    @Param({"GREEDY", "BEAM"})
+    PlannerMode planner;
+
+    private SimulationService sim;
+    private String driverId;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticCity city = new SyntheticCity(trips, 200, 8, 42L);
+        var jobs = new InMemoryJobsReadRepository(city.trips);
+        sim = new SimulationService(jobs, new BaselineService(jobs, null), new FixedScoreModelClient(), new H3Util(),
+                30, 5, 2, clock, planner, 4, 3, 2000);
+        driverId = SyntheticCity.driverId(0);
+    }
+
+    @Benchmark
+    public SimulationResult simulateDay() {
+        return sim.simulateDay(driverId, SyntheticCity.DATE, null, null, null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.junctionx.backend.bench;
+
+import com.junctionx.backend.sim.dto.TripDTO;
+import com.uber.h3core.H3Core;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Deterministic fake city-day: res-9 cells around central Amsterdam and trips spread over
+ * 06:00–22:00. Same seed, same data, so benchmark runs are comparable.
+ */
+public final class SyntheticCity {
+
+    public static final String CITY_ID = "1";
+    public static final LocalDate DATE = LocalDate.of(2023, 3, 17);
+    public static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
+
+    public final long[] hexes;
+    public final List<TripDTO> trips;
+    public final OffsetDateTime dayStart;
+
+    public SyntheticCity(int tripCount, int driverCount, int ringRadius, long seed) throws IOException {
+        H3Core h3 = H3Core.newInstance();
+        long center = h3.geoToH3(52.3702, 4.8952, 9);
+        this.hexes = h3.kRing(center, ringRadius).stream().mapToLong(Long::longValue).toArray();
+        this.dayStart = DATE.atStartOfDay(ZONE).toOffsetDateTime();
+
+        Random rnd = new Random(seed);
+        List<TripDTO> out = new ArrayList<>(tripCount);
+        for (int i = 0; i < tripCount; i++) {
+            OffsetDateTime start = dayStart.plusMinutes(6 * 60 + rnd.nextInt(16 * 60));
+            int dur = 5 + rnd.nextInt(36);
+            out.add(new TripDTO(
+                    "ride-" + i,
+                    driverId(i % driverCount),
+                    CITY_ID,
+                    hexes[rnd.nextInt(hexes.length)],
+                    hexes[rnd.nextInt(hexes.length)],
+                    start,
+                    start.plusMinutes(dur),
+                    (double) dur,
+                    4.0 + dur * 0.6 + rnd.nextDouble() * 3.0));
+        }
+        out.sort(Comparator.comparing(TripDTO::startTs));
+        this.trips = List.copyOf(out);
+    }
+
+    public static String driverId(int n) { return "E" + (10000 + n); }
+}
@@ -0,0 +1,63 @@
+package com.junctionx.backend.bench;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forward-only ResultSet over in-memory rows, enough of the JDBC surface for row mappers
+ * (name and 1-based index access, typed getters, wasNull). {@link #rewind()} replays it.
+ */
+public final class SyntheticResultSet {
+
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final Object[][] rows;
+    private final ResultSet proxy;
+    private int cursor = -1;
+    private boolean lastNull;
+
+    public SyntheticResultSet(List<String> columnNames, Object[][] rows) {
+        for (int i = 0; i < columnNames.size(); i++) columns.put(columnNames.get(i), i);
+        this.rows = rows;
+        this.proxy = (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (p, m, args) -> switch (m.getName()) {
+                    case "next" -> ++cursor < rows.length;
+                    case "wasNull" -> lastNull;
+                    case "findColumn" -> col(args[0]) + 1;
+                    case "getString" -> value(args[0]);
+                    case "getObject" -> args.length > 1 ? ((Class<?>) args[1]).cast(value(args[0])) : value(args[0]);
+                    case "getInt" -> { Object v = value(args[0]); yield v == null ? 0 : ((Number) v).intValue(); }
+                    case "getLong" -> { Object v = value(args[0]); yield v == null ? 0L : ((Number) v).longValue(); }
+                    case "getDouble" -> { Object v = value(args[0]); yield v == null ? 0.0 : ((Number) v).doubleValue(); }
+                    case "close" -> null;
+                    case "isClosed" -> false;
+                    case "hashCode" -> System.identityHashCode(p);
+                    case "equals" -> p == args[0];
+                    case "toString" -> "SyntheticResultSet[" + rows.length + " rows]";
+                    default -> throw new SQLException("not supported by SyntheticResultSet: " + m.getName());
+                });
+    }
+
+    public ResultSet resultSet() { return proxy; }
+
+    public int rowCount() { return rows.length; }
+
+    public void rewind() { cursor = -1; }
+
+    private int col(Object key) throws SQLException {
+        if (key instanceof Integer i) return i - 1;
+        Integer idx = columns.get((String) key);
+        if (idx == null) throw new SQLException("unknown column " + key);
+        return idx;
+    }
+
+    private Object value(Object key) throws SQLException {
+        Object v = rows[cursor][col(key)];
+        lastNull = v == null;
+        return v;
+    }
+}
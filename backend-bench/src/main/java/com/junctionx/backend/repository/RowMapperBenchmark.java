@@ -0,0 +1,95 @@
+package com.junctionx.backend.repository;
+
+import com.junctionx.backend.bench.SyntheticCity;
+import com.junctionx.backend.bench.SyntheticResultSet;
+import com.junctionx.backend.sim.dto.TripDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JobsReadRepository.ROW over a synthetic city-day ResultSet (per-row cost via OperationsPerInvocation),
+ * next to the previous by-name/getObject mapper. Run with {@code -prof gc} for bytes per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(RowMapperBenchmark.ROWS)
+public class RowMapperBenchmark {
+
+    static final int ROWS = 10_000;
+
+    private static final List<String> COLUMNS = List.of(
+            "ride_id", "driver_id", "city_id", "pickup_h3", "drop_h3",
+            "start_us", "end_us", "duration_mins", "net_earnings");
+
+    private static final List<String> LEGACY_COLUMNS = List.of(
+            "ride_id", "driver_id", "city_id", "pickup_h3", "drop_h3",
+            "start_time", "end_time", "duration_mins", "net_earnings");
+
+    // The mapper before index access: getObject + boxing casts, a fresh city String per row
+    private static final RowMapper<TripDTO> LEGACY = (rs, rowNum) -> {
+        Integer cityIdInt = (Integer) rs.getObject("city_id");
+        Integer durI = (Integer) rs.getObject("duration_mins");
+        return new TripDTO(
+                rs.getString("ride_id"), rs.getString("driver_id"),
+                cityIdInt == null ? null : String.valueOf(cityIdInt),
+                rs.getLong("pickup_h3"), rs.getLong("drop_h3"),
+                rs.getObject("start_time", OffsetDateTime.class), rs.getObject("end_time", OffsetDateTime.class),
+                durI == null ? null : durI.doubleValue(), (Double) rs.getObject("net_earnings"));
+    };
+
+    private SyntheticResultSet data;
+    private SyntheticResultSet legacyData;
+
+    @Setup
+    public void setup() throws IOException {
+        List<TripDTO> trips = new SyntheticCity(ROWS, 200, 8, 7L).trips;
+        Object[][] rows = new Object[trips.size()][];
+        Object[][] legacyRows = new Object[trips.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            TripDTO t = trips.get(i);
+            rows[i] = new Object[]{
+                    t.rideId(), t.driverId(), Integer.valueOf(t.cityId()), t.pickupH3(), t.dropoffH3(),
+                    micros(t.startTs()), t.endTs() == null ? null : micros(t.endTs()),
+                    t.durationMins().intValue(), t.fare()};
+            legacyRows[i] = new Object[]{
+                    t.rideId(), t.driverId(), Integer.valueOf(t.cityId()), t.pickupH3(), t.dropoffH3(),
+                    t.startTs(), t.endTs(), t.durationMins().intValue(), t.fare()};
+        }
+        data = new SyntheticResultSet(COLUMNS, rows);
+        legacyData = new SyntheticResultSet(LEGACY_COLUMNS, legacyRows);
+    }
+
+    private static long micros(OffsetDateTime t) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, t.toInstant());
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole bh) throws SQLException {
+        data.rewind();
+        ResultSet rs = data.resultSet();
+        int i = 0;
+        while (rs.next()) bh.consume(JobsReadRepository.ROW.mapRow(rs, i++));
+    }
+
+    @Benchmark
+    public void mapRowsLegacy(Blackhole bh) throws SQLException {
+        legacyData.rewind();
+        ResultSet rs = legacyData.resultSet();
+        int i = 0;
+        while (rs.next()) bh.consume(LEGACY.mapRow(rs, i++));
+    }
+}
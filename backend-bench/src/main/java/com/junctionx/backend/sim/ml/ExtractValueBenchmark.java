@@ -0,0 +1,40 @@
+package com.junctionx.backend.sim.ml;
+
+import com.junctionx.backend.bench.FixedScoreModelClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** ModelClient.extractValue over the response shapes the ML server and proxies return. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractValueBenchmark {
+
+    @Param({"rating", "score-string", "data.score", "ml_output.rating", "missing"})
+    String shape;
+
+    private ModelClient client;
+    private Map<String, Object> body;
+
+    @Setup
+    public void setup() {
+        client = new FixedScoreModelClient();
+        body = switch (shape) {
+            case "rating" -> Map.of("ride_id", "r-1", "rating", 71.25, "source", "excel");
+            case "score-string" -> Map.of("ride_id", "r-1", "score", "71.25");
+            case "data.score" -> Map.of("data", Map.of("score", 71.25));
+            case "ml_output.rating" -> Map.of("id", "r-1", "ml_output", Map.of("ride_id", "r-1", "rating", 71.25));
+            default -> Map.of("ride_id", "r-1", "error", "not found");
+        };
+    }
+
+    @Benchmark
+    public double extractValue() {
+        return client.extractValue(body);
+    }
+}
@@ -0,0 +1,83 @@
+package com.junctionx.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica pool when app.datasource.replica.url is set.
+ *
+ * <p>The application DataSource is a {@link LazyConnectionDataSourceProxy}: it only picks a pool
+ * at the first statement, after the transaction manager has called setReadOnly, so
+ * {@code @Transactional(readOnly = true)} work lands on the read-only side and everything else
+ * (writes, schema updates, autocommit JDBC) on the primary. The read-only side is the replica
+ * while {@link ReplicaLagMonitor} finds it reachable and within max-lag-seconds, and not right
+ * after an import, else the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    /** The spring.datasource pool, as Boot would have built it. */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties props) {
+        return props.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primary,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password,
+                                              @Value("${app.datasource.replica.pool-size:10}") int poolSize) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setJdbcUrl(url);
+        ds.setUsername(username.isEmpty() ? primary.determineUsername() : username);
+        ds.setPassword(password.isEmpty() ? primary.determinePassword() : password);
+        ds.setMaximumPoolSize(poolSize);
+        ds.setReadOnly(true);
+        // Start even if the replica is down; the monitor keeps reads on the primary meanwhile
+        ds.setInitializationFailTimeout(-1);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.max-lag-seconds:5}") double maxLagSeconds,
+                                               @Value("${app.datasource.replica.check-interval-ms:2000}") long checkIntervalMs) {
+        return new ReplicaLagMonitor(replica, maxLagSeconds, checkIntervalMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor monitor) {
+        AbstractRoutingDataSource readOnly = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return monitor.usable() ? "replica" : "primary";
+            }
+        };
+        readOnly.setTargetDataSources(Map.of("replica", replica, "primary", primary));
+        readOnly.setDefaultTargetDataSource(primary);
+        readOnly.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy ds = new LazyConnectionDataSourceProxy(primary);
+        ds.setReadOnlyDataSource(readOnly);
+        return ds;
+    }
+}
@@ -0,0 +1,89 @@
+package com.junctionx.backend.config;
+
+import com.junctionx.backend.model.JobsImportedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the read replica and decides whether read-only traffic may use it: the replica must
+ * answer and its replay lag must be at most {@code maxLagSeconds}. A database that is not in
+ * recovery (e.g. a second database on the primary's instance) counts as zero lag.
+ * Right after an import the replica is skipped for max-lag-seconds plus one check interval, so
+ * caches refilled after the import read the new rows (read-your-writes).
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // An idle primary writes no WAL, so replay age only counts while replay is behind receive
+    private static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp())::float8, 'Infinity')
+                   END""";
+
+    /**
+     * Last check; {@code lagSeconds} is NaN when the replica did not answer. {@code usable} is
+     * false until {@code primaryUntilMs} after an import, whatever the lag.
+     */
+    public record State(boolean usable, double lagSeconds, double maxLagSeconds, long checkedAtMs, long primaryUntilMs) {}
+
+    private final JdbcTemplate replica;
+    private final double maxLagSeconds;
+    private final long checkIntervalMs;
+    private volatile State state;
+    private volatile long primaryUntilMs;
+
+    public ReplicaLagMonitor(DataSource replica, double maxLagSeconds, long checkIntervalMs) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(2);
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkIntervalMs = checkIntervalMs;
+        this.state = new State(false, Double.NaN, maxLagSeconds, 0, 0); // primary until the first check
+    }
+
+    public boolean usable() {
+        return state.usable() && System.currentTimeMillis() >= primaryUntilMs;
+    }
+
+    public State state() {
+        State s = state;
+        return new State(usable(), s.lagSeconds(), s.maxLagSeconds(), s.checkedAtMs(), primaryUntilMs);
+    }
+
+    // Before the caches drop their entries on the same event, so no refill reads the replica
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onJobsImported(JobsImportedEvent e) {
+        // a check that passed just now may have seen up to max-lag; replay can trail that by one interval
+        long window = (long) (maxLagSeconds * 1000) + checkIntervalMs;
+        primaryUntilMs = System.currentTimeMillis() + window;
+        log.info("Jobs imported, reads go to the primary for the next {} ms", window);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:2000}")
+    public void check() {
+        double lag;
+        try {
+            Double v = replica.queryForObject(LAG_SQL, Double.class);
+            lag = v == null ? Double.POSITIVE_INFINITY : v;
+        } catch (RuntimeException e) {
+            lag = Double.NaN;
+            if (state.usable()) log.warn("Read replica unreachable, reads go to the primary: {}", e.toString());
+        }
+        boolean usable = lag <= maxLagSeconds; // false for NaN
+        if (usable != state.usable() && !Double.isNaN(lag)) {
+            if (usable) log.info("Read replica in use (lag {} s)", lag);
+            else log.warn("Read replica lag {} s exceeds {} s, reads go to the primary", lag, maxLagSeconds);
+        }
+        state = new State(usable, lag, maxLagSeconds, System.currentTimeMillis(), 0);
+    }
+}
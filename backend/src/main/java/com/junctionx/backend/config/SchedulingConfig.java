@@ -0,0 +1,10 @@
+package com.junctionx.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables @Scheduled maintenance jobs (e.g. JobsPartitionManager). */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,22 +1,36 @@
 package com.junctionx.backend.controller;
 
+import com.junctionx.backend.repository.DriverDayMetricsRepository;
 import com.junctionx.backend.sim.BaselineService;
 import com.junctionx.backend.sim.dto.BaselineMetrics;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/debug/baseline")
 public class DebugBaselineController {
     private final BaselineService baseline;
-    public DebugBaselineController(BaselineService baseline) { this.baseline = baseline; }
+    private final DriverDayMetricsRepository rollup;
+
+    public DebugBaselineController(BaselineService baseline, DriverDayMetricsRepository rollup) {
+        this.baseline = baseline;
+        this.rollup = rollup;
+    }
 
     @GetMapping
     public BaselineMetrics baseline(
             @RequestParam String driverId,
-            @RequestParam String date  // YYYY-MM-DD
+            @RequestParam String date,  // YYYY-MM-DD
+            @RequestParam(defaultValue = "false") boolean live // true = skip driver_day_metrics
     ) {
-        return baseline.compute(driverId, LocalDate.parse(date));
+        LocalDate day = LocalDate.parse(date);
+        return live ? baseline.computeLive(driverId, day) : baseline.compute(driverId, day);
+    }
+
+    @PostMapping("/rollup/refresh")
+    public Map<String, Object> refreshRollup() {
+        return Map.of("driverDays", rollup.refreshAll());
     }
 }
@@ -0,0 +1,23 @@
+package com.junctionx.backend.controller;
+
+import com.junctionx.backend.dto.ImportStatus;
+import com.junctionx.backend.importer.ImportProgress;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/debug/import")
+public class DebugImportController {
+    private final ImportProgress progress;
+
+    public DebugImportController(ImportProgress progress) {
+        this.progress = progress;
+    }
+
+    /** Per-sheet rows read/written, rows per second and rejects of the running or last import. */
+    @GetMapping("/status")
+    public ImportStatus status() {
+        return progress.snapshot();
+    }
+}
@@ -1,10 +1,23 @@
 package com.junctionx.backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.junctionx.backend.repository.JobsPartitionManager;
 import com.junctionx.backend.repository.JobsReadRepository;
+import com.junctionx.backend.repository.SnapshotJobsReadRepository;
 import com.junctionx.backend.sim.dto.TripDTO;
+import com.junctionx.backend.sim.util.H3Util;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -14,8 +27,17 @@ import java.util.List;
 public class DebugJobsController {
 
     private final JobsReadRepository repo;
+    private final JobsPartitionManager partitions;
+    private final ObjectMapper json;
+    private final ObjectProvider<SnapshotJobsReadRepository> snapshot;
 
-    public DebugJobsController(JobsReadRepository repo) { this.repo = repo; }
+    public DebugJobsController(JobsReadRepository repo, JobsPartitionManager partitions, ObjectMapper json,
+                               ObjectProvider<SnapshotJobsReadRepository> snapshot) {
+        this.repo = repo;
+        this.partitions = partitions;
+        this.json = json;
+        this.snapshot = snapshot;
+    }
 
     @GetMapping("/driver-day")
     public List<TripDTO> driverDay(
@@ -26,13 +48,57 @@ public class DebugJobsController {
         return repo.findDriverTripsForDay(driverId, dayStart, dayEnd);
     }
 
-    @GetMapping("/city-day")
-    public List<TripDTO> cityDay(
+    /** One TripDTO per line (NDJSON), written as rows come off the cursor. */
+    @GetMapping(value = "/city-day", produces = "application/x-ndjson")
+    public StreamingResponseBody cityDay(
             @RequestParam Integer cityId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dayStart,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dayEnd
     ) {
-        return repo.findCityTripsForDay(cityId, dayStart, dayEnd);
+        ObjectWriter writer = json.writerFor(TripDTO.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return body -> {
+            // One generator for the whole response; it buffers, and must not close the servlet stream
+            JsonGenerator gen = json.getFactory().createGenerator(body)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            long[] rows = {0};
+            try {
+                repo.forEachCityTripForDay(cityId, dayStart, dayEnd, t -> {
+                    try {
+                        writer.writeValue(gen, t);
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (rows[0] > 0) gen.writeRaw('\n');
+            gen.flush();
+        };
+    }
+
+    /** Query plan of the city-day read; only the partitions overlapping the range should appear. */
+    @GetMapping("/city-day/plan")
+    public List<String> cityDayPlan(
+            @RequestParam Integer cityId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dayStart,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dayEnd
+    ) {
+        return partitions.explainCityDay(cityId, dayStart, dayEnd);
+    }
+
+    @GetMapping("/partitions")
+    public List<JobsPartitionManager.Partition> partitions() {
+        return partitions.partitions();
+    }
+
+    @PostMapping("/partitions/maintain")
+    public List<JobsPartitionManager.Partition> maintainPartitions() {
+        partitions.maintain();
+        return partitions.partitions();
     }
 
     @GetMapping("/window")
@@ -42,8 +108,26 @@ public class DebugJobsController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime toTs,
             @RequestParam String pickupHexes // comma-separated
     ) {
-        List<String> hexList = Arrays.stream(pickupHexes.split(","))
-                .map(String::trim).filter(s -> !s.isEmpty()).toList();
+        long[] hexList = Arrays.stream(pickupHexes.split(","))
+                .map(String::trim).filter(s -> !s.isEmpty())
+                .mapToLong(H3Util::toLong).toArray();
         return repo.findWindowedCandidates(cityId, fromTs, toTs, hexList);
     }
+
+    @GetMapping("/snapshot")
+    public SnapshotJobsReadRepository.Status snapshot() {
+        return snapshotRepo().status();
+    }
+
+    /** Re-exports the columnar snapshot now instead of waiting for the next import. */
+    @PostMapping("/snapshot/export")
+    public SnapshotJobsReadRepository.Status exportSnapshot() {
+        return snapshotRepo().refresh();
+    }
+
+    private SnapshotJobsReadRepository snapshotRepo() {
+        SnapshotJobsReadRepository s = snapshot.getIfAvailable();
+        if (s == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "jobs.snapshot.enabled is false");
+        return s;
+    }
 }
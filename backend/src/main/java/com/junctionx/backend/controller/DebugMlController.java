@@ -1,6 +1,7 @@
 package com.junctionx.backend.controller;
 
 import com.junctionx.backend.sim.ml.ModelClient;
+import com.junctionx.backend.sim.ml.ScoreStore;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -10,17 +11,22 @@ import java.util.*;
 public class DebugMlController {
 
     private final ModelClient client;
+    private final ScoreStore store;
 
-    public DebugMlController(ModelClient client) { this.client = client; }
+    public DebugMlController(ModelClient client, ScoreStore store) {
+        this.client = client;
+        this.store = store;
+    }
 
     @GetMapping("/score")
     public List<Map<String, Object>> score(@RequestParam String ids) {
         List<String> rideIds = Arrays.stream(ids.split(","))
                 .map(String::trim).filter(s -> !s.isEmpty()).toList();
 
+        Map<String, Double> scores = client.scoreRides(rideIds);
         List<Map<String, Object>> out = new ArrayList<>();
         for (String id : rideIds) {
-            double s = client.scoreRide(id);
+            double s = scores.getOrDefault(id, Double.NEGATIVE_INFINITY);
             out.add(Map.of("id", id, "score", s));
         }
         return out;
@@ -31,4 +37,15 @@ public class DebugMlController {
         client.clearCache();
         return Map.of("ok", true);
     }
+
+    @GetMapping("/score-store")
+    public ScoreStore.Status scoreStore() {
+        return store.status();
+    }
+
+    /** Pulls the ML export now; clears the score cache if any score changed. */
+    @PostMapping("/score-store/reload")
+    public ScoreStore.Status reloadScoreStore() {
+        return store.reload();
+    }
 }
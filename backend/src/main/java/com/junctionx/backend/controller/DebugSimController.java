@@ -1,19 +1,30 @@
 package com.junctionx.backend.controller;
 
-import com.junctionx.backend.sim.SimulationService;
+import com.junctionx.backend.dto.SweepResponse;
+import com.junctionx.backend.sim.ClockMode;
+import com.junctionx.backend.sim.ParameterSweepService;
+import com.junctionx.backend.sim.PlannerMode;
+import com.junctionx.backend.sim.SimOptions;
+import com.junctionx.backend.sim.SimulationResultCache;
 import com.junctionx.backend.sim.dto.SimulationResult;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/debug/sim")
 public class DebugSimController {
 
-    private final SimulationService sim;
+    private final SimulationResultCache cache;
+    private final ParameterSweepService sweep;
 
-    public DebugSimController(SimulationService sim) {
-        this.sim = sim;
+    public DebugSimController(SimulationResultCache cache, ParameterSweepService sweep) {
+        this.cache = cache;
+        this.sweep = sweep;
     }
 
     @GetMapping
@@ -22,8 +33,54 @@ public class DebugSimController {
             @RequestParam String date, // YYYY-MM-DD
             @RequestParam(required = false) Integer tol,
             @RequestParam(required = false) Integer lookahead,
-            @RequestParam(required = false) Integer k
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) ClockMode clock,
+            @RequestParam(required = false) PlannerMode planner,
+            @RequestParam(required = false) Integer beamWidth,
+            @RequestParam(required = false) Integer beamDepth,
+            @RequestParam(required = false) Integer budgetMs
     ) {
-        return sim.simulateDay(driverId, LocalDate.parse(date), tol, lookahead, k);
+        return cache.simulateDay(driverId, LocalDate.parse(date), tol, lookahead, k,
+                new SimOptions(clock, planner, beamWidth, beamDepth, budgetMs));
+    }
+
+    /**
+     * Grid search over tol × lookahead × k for one driver-day (driverId) or a city-day (cityId).
+     * Each grid is a comma-separated list, e.g. tol=0,5,10&lookahead=15,30,45&k=1,2;
+     * omitted grids use the configured default.
+     */
+    @GetMapping("/sweep")
+    public SweepResponse sweep(
+            @RequestParam(required = false) String driverId,
+            @RequestParam(required = false) Integer cityId,
+            @RequestParam String date, // YYYY-MM-DD
+            @RequestParam(required = false) List<Integer> tol,
+            @RequestParam(required = false) List<Integer> lookahead,
+            @RequestParam(required = false) List<Integer> k,
+            @RequestParam(required = false) ClockMode clock,
+            @RequestParam(required = false) PlannerMode planner,
+            @RequestParam(required = false) Integer beamWidth,
+            @RequestParam(required = false) Integer beamDepth,
+            @RequestParam(required = false) Integer budgetMs
+    ) {
+        if ((driverId == null) == (cityId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Pass exactly one of driverId or cityId");
+        }
+        SimOptions options = new SimOptions(clock, planner, beamWidth, beamDepth, budgetMs);
+        LocalDate day = LocalDate.parse(date);
+        return driverId != null
+                ? sweep.sweepDriverDay(driverId, day, tol, lookahead, k, options)
+                : sweep.sweepCityDay(cityId, day, tol, lookahead, k, options);
+    }
+
+    @GetMapping("/cache")
+    public SimulationResultCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    @PostMapping("/cache/clear")
+    public Map<String, Object> clearCache() {
+        cache.invalidateAll();
+        return Map.of("ok", true);
     }
 }
@@ -33,9 +33,9 @@ public class DriverController {
     @GetMapping("/{earnerId}/trips")
     public GeoJson.FeatureCollection driverTrips(@PathVariable String earnerId,
                                                  @RequestParam String date,
-                                                 @RequestParam(required = false) Integer page,
+                                                 @RequestParam(required = false) String cursor,
                                                  @RequestParam(required = false) Integer size) {
-        return driverTripsService.actualTrips(earnerId, date, page, size);
+        return driverTripsService.actualTrips(earnerId, date, cursor, size);
     }
 
     // Trips — counterfactual
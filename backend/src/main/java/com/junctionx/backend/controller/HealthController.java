@@ -1,28 +1,37 @@
 package com.junctionx.backend.controller;
 
+import com.junctionx.backend.config.ReplicaLagMonitor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
 public class HealthController {
 
     private final DataSource dataSource;
+    private final ObjectProvider<ReplicaLagMonitor> replica;
 
-    public HealthController(DataSource dataSource) {
+    public HealthController(DataSource dataSource, ObjectProvider<ReplicaLagMonitor> replica) {
         this.dataSource = dataSource;
+        this.replica = replica;
     }
 
     @GetMapping("/api/health")
     public Map<String, Object> health() {
+        Map<String, Object> out = new LinkedHashMap<>();
         try (Connection conn = dataSource.getConnection()) {
             boolean valid = conn.isValid(2);
-            return Map.of("status", "ok", "db", valid ? "up" : "down");
+            out.putAll(Map.of("status", "ok", "db", valid ? "up" : "down"));
         } catch (Exception e) {
-            return Map.of("status", "error", "db", "down", "error", e.getMessage());
+            out.putAll(Map.of("status", "error", "db", "down", "error", String.valueOf(e.getMessage())));
         }
+        // Only with app.datasource.replica.url set
+        replica.ifAvailable(m -> out.put("replica", m.state()));
+        return out;
     }
 }
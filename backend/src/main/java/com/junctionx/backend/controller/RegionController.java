@@ -22,10 +22,10 @@ public class RegionController {
     @GetMapping("/{cityId}/drivers/trips")
     public FeatureCollection regionTrips(@PathVariable int cityId,
                                          @RequestParam String date,
-                                         @RequestParam(required = false) Integer page,
+                                         @RequestParam(required = false) String cursor,
                                          @RequestParam(required = false) Integer size,
                                          @RequestParam(required = false) String earnerIds) {
-        return regionService.actualTrips(cityId, date, page, size, earnerIds);
+        return regionService.actualTrips(cityId, date, cursor, size, earnerIds);
     }
 
     @GetMapping("/{cityId}/drivers/trips/counterfactual")
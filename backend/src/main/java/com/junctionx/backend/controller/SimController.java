@@ -1,59 +1,135 @@
 package com.junctionx.backend.controller;
 
+import com.junctionx.backend.dto.MonteCarloSummary;
 import com.junctionx.backend.dto.SimImprovements;
 import com.junctionx.backend.dto.SimulateResponse;
+import com.junctionx.backend.sim.ClockMode;
+import com.junctionx.backend.sim.MonteCarloService;
+import com.junctionx.backend.sim.PlannerMode;
+import com.junctionx.backend.sim.SimOptions;
+import com.junctionx.backend.sim.SimulationListener;
+import com.junctionx.backend.sim.SimulationResultCache;
 import com.junctionx.backend.sim.SimulationService;
+import com.junctionx.backend.sim.dto.SimMetrics;
 import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.dto.TimelineEvent;
+import com.junctionx.backend.sim.dto.TimelineProgress;
+import com.junctionx.backend.ui.SseBus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/simulate")
 public class SimController {
 
+    private final SimulationResultCache cache;
     private final SimulationService sim;
+    private final SseBus sse;
+    private final MonteCarloService monteCarlo;
+    private final AsyncTaskExecutor executor;
 
-    public SimController(SimulationService sim) { this.sim = sim; }
+    public SimController(SimulationResultCache cache,
+                         SimulationService sim,
+                         SseBus sse,
+                         MonteCarloService monteCarlo,
+                         @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor) {
+        this.cache = cache;
+        this.sim = sim;
+        this.sse = sse;
+        this.monteCarlo = monteCarlo;
+        this.executor = executor;
+    }
 
+    /**
+     * Deterministic counterfactual day. With {@code replicas} > 0 the response also carries
+     * Monte Carlo percentile bands (trips withheld with {@code dropRate}, durations jittered by
+     * {@code durationJitter}, replica i seeded with {@code seed + i}).
+     */
     @GetMapping
     public SimulateResponse simulate(
             @RequestParam String driverId,
             @RequestParam String date,
             @RequestParam(required = false) Integer tol,
             @RequestParam(required = false) Integer lookahead,
-            @RequestParam(required = false) Integer k
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) ClockMode clock,
+            @RequestParam(required = false) PlannerMode planner,
+            @RequestParam(required = false) Integer beamWidth,
+            @RequestParam(required = false) Integer beamDepth,
+            @RequestParam(required = false) Integer budgetMs,
+            @RequestParam(defaultValue = "0") int replicas,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Double dropRate,
+            @RequestParam(required = false) Double durationJitter
     ) {
-        SimulationResult r = sim.simulateDay(driverId, LocalDate.parse(date), tol, lookahead, k);
+        LocalDate day = LocalDate.parse(date);
+        SimOptions options = new SimOptions(clock, planner, beamWidth, beamDepth, budgetMs);
+        SimulationResult r = cache.simulateDay(driverId, day, tol, lookahead, k, options);
+        MonteCarloSummary mc = replicas > 0
+                ? monteCarlo.run(driverId, day, tol, lookahead, k, options, replicas, seed, dropRate, durationJitter)
+                : null;
+        return toResponse(r, mc);
+    }
 
-        var b = r.baseline();
-        var s = r.simulated();
+    /**
+     * Same parameters as {@link #simulate}, streamed: one "timeline" event per TimelineEvent
+     * (with running totals), then a "result" event carrying the full SimulateResponse.
+     * Failures end the stream with an "error" event. Closing the connection stops the run.
+     */
+    @GetMapping(value = "/stream", produces = "text/event-stream")
+    public SseEmitter simulateStream(
+            @RequestParam String driverId,
+            @RequestParam String date,
+            @RequestParam(required = false) Integer tol,
+            @RequestParam(required = false) Integer lookahead,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) ClockMode clock,
+            @RequestParam(required = false) PlannerMode planner,
+            @RequestParam(required = false) Integer beamWidth,
+            @RequestParam(required = false) Integer beamDepth,
+            @RequestParam(required = false) Integer budgetMs
+    ) {
+        LocalDate day = LocalDate.parse(date);
+        SimOptions options = new SimOptions(clock, planner, beamWidth, beamDepth, budgetMs);
+
+        AtomicBoolean gone = new AtomicBoolean();
+        SseEmitter emitter = sse.open(() -> gone.set(true));
+
+        SimulationListener listener = new SimulationListener() {
+            @Override
+            public void onEvent(TimelineEvent event, SimMetrics running) {
+                if (!gone.get() && !sse.send(emitter, "timeline", new TimelineProgress(event, running))) {
+                    gone.set(true);
+                }
+            }
 
-        double dEarnings = s.earnings() - b.earnings();
-        double dDrive    = s.driveMins() - b.driveMins();
-        double dIdle     = s.idleMins()  - b.idleMins();
-        double dRest     = s.restMins()  - b.restMins();
-        int    dTrips    = s.tripsCount() - b.tripsCount();
-
-        Double pEarnings = pct(dEarnings, b.earnings());
-        Double pDrive    = pct(dDrive,    b.driveMins());
-        Double pIdle     = pct(dIdle,     b.idleMins());
-        Double pRest     = pct(dRest,     b.restMins());
-        Double pTrips    = pct(dTrips,    b.tripsCount());
-
-        var imp = new SimImprovements(
-                dEarnings, pEarnings,
-                dDrive,    pDrive,
-                dIdle,     pIdle,
-                dRest,     pRest,
-                dTrips,    pTrips
-        );
-
-        return new SimulateResponse(b, s, imp, r.timeline(), r.notes());
+            @Override
+            public boolean cancelled() { return gone.get(); }
+        };
+
+        executor.execute(() -> {
+            try {
+                SimulationResult r = sim.simulateDay(driverId, day, tol, lookahead, k, options, listener);
+                if (!gone.get()) sse.send(emitter, "result", toResponse(r, null));
+            } catch (Exception ex) {
+                if (!gone.get()) sse.send(emitter, "error", Map.of("message", String.valueOf(ex.getMessage())));
+            } finally {
+                emitter.complete();
+            }
+        });
+        return emitter;
     }
 
-    private Double pct(double delta, double base) {
-        if (Math.abs(base) < 1e-9) return null;
-        return (delta / base) * 100.0;
+    private SimulateResponse toResponse(SimulationResult r, MonteCarloSummary mc) {
+        var b = r.baseline();
+        var s = r.simulated();
+        var imp = SimImprovements.between(SimMetrics.of(b), s);
+        return new SimulateResponse(b, s, imp, mc, r.timeline(), r.notes());
     }
 }
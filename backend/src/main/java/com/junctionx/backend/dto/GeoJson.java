@@ -1,5 +1,7 @@
 package com.junctionx.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 import java.util.Map;
 
@@ -30,12 +32,20 @@ public class GeoJson {
     public static class FeatureCollection {
         private String type = "FeatureCollection";
         private List<Feature> features;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;                 // paged endpoints: pass back as ?cursor= for the next page
 
         public FeatureCollection() {}
         public FeatureCollection(List<Feature> features) { this.features = features; }
+        public FeatureCollection(List<Feature> features, String nextCursor) {
+            this.features = features;
+            this.nextCursor = nextCursor;
+        }
 
         public String getType() { return type; }
         public List<Feature> getFeatures() { return features; }
+        public String getNextCursor() { return nextCursor; }
         public void setFeatures(List<Feature> features) { this.features = features; }
+        public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
     }
 }
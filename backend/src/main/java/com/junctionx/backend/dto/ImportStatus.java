@@ -0,0 +1,12 @@
+package com.junctionx.backend.dto;
+
+import java.util.List;
+
+/** Current or last workbook import; state is IDLE until an import has started. */
+public record ImportStatus(
+        String source,
+        String state,        // IDLE, RUNNING, DONE, FAILED
+        String startedAt,
+        long elapsedMs,
+        List<SheetImportStatus> sheets
+) {}
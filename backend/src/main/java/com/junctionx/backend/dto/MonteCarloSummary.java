@@ -0,0 +1,17 @@
+package com.junctionx.backend.dto;
+
+/**
+ * Percentile bands over N perturbed replicas of the same driver-day.
+ * {@code earningsUplift} is simulated minus baseline earnings per replica.
+ */
+public record MonteCarloSummary(
+        int replicas,
+        long seed,
+        double dropRate,
+        double durationJitter,
+        PercentileBand earnings,
+        PercentileBand earningsUplift,
+        PercentileBand driveMins,
+        PercentileBand idleMins,
+        PercentileBand restMins
+) {}
@@ -0,0 +1,11 @@
+package com.junctionx.backend.dto;
+
+/** Spread of one metric across Monte Carlo replicas. */
+public record PercentileBand(
+        double p5,
+        double p25,
+        double p50,
+        double p75,
+        double p95,
+        double mean
+) {}
@@ -0,0 +1,19 @@
+package com.junctionx.backend.dto;
+
+/**
+ * Progress of one workbook sheet. {@code rowsWritten} are rows inserted or changed;
+ * {@code rowsUnchanged} were already present with the same values (or dropped by a database-side
+ * check); {@code rejected} failed parsing or named an unknown earner ({@code unknownEarners}).
+ */
+public record SheetImportStatus(
+        String sheet,
+        String state,        // PENDING, RUNNING, DONE, FAILED, SKIPPED
+        long rowsRead,
+        long rowsWritten,
+        long rowsUnchanged,
+        long rejected,
+        long unknownEarners,
+        long elapsedMs,
+        double rowsPerSec,
+        String error
+) {}
@@ -1,9 +1,33 @@
 package com.junctionx.backend.dto;
 
+import com.junctionx.backend.sim.dto.SimMetrics;
+
 public record SimImprovements(
         double earningsAbs,  Double earningsPct,
         double driveMinsAbs, Double driveMinsPct,
         double idleMinsAbs,  Double idleMinsPct,
         double restMinsAbs,  Double restMinsPct,
         int tripsAbs,        Double tripsPct
-) {}
+) {
+    /** simulated - baseline per metric; percentages are null when the baseline value is ~0. */
+    public static SimImprovements between(SimMetrics b, SimMetrics s) {
+        double dEarnings = s.earnings() - b.earnings();
+        double dDrive    = s.driveMins() - b.driveMins();
+        double dIdle     = s.idleMins()  - b.idleMins();
+        double dRest     = s.restMins()  - b.restMins();
+        int    dTrips    = s.tripsCount() - b.tripsCount();
+
+        return new SimImprovements(
+                dEarnings, pct(dEarnings, b.earnings()),
+                dDrive,    pct(dDrive,    b.driveMins()),
+                dIdle,     pct(dIdle,     b.idleMins()),
+                dRest,     pct(dRest,     b.restMins()),
+                dTrips,    pct(dTrips,    b.tripsCount())
+        );
+    }
+
+    private static Double pct(double delta, double base) {
+        if (Math.abs(base) < 1e-9) return null;
+        return (delta / base) * 100.0;
+    }
+}
@@ -10,6 +10,7 @@ public record SimulateResponse(
         BaselineMetrics baseline,
         SimMetrics simulated,
         SimImprovements improvements,
+        MonteCarloSummary monteCarlo, // null unless replicas were requested
         List<TimelineEvent> timeline,
         List<String> notes
 ) {}
@@ -0,0 +1,19 @@
+package com.junctionx.backend.dto;
+
+import com.junctionx.backend.sim.dto.SimMetrics;
+
+import java.util.List;
+
+/**
+ * Parameter sweep over one driver-day or a whole city-day (summed over its drivers).
+ * Rows are ranked by earnings uplift, best first.
+ */
+public record SweepResponse(
+        String driverId,
+        Integer cityId,
+        String date,
+        int drivers,
+        SimMetrics baseline,
+        long elapsedMs,
+        List<SweepRow> rows
+) {}
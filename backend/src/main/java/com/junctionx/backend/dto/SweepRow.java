@@ -0,0 +1,12 @@
+package com.junctionx.backend.dto;
+
+import com.junctionx.backend.sim.dto.SimMetrics;
+
+/** One grid point of a parameter sweep with its simulated totals and uplift over baseline. */
+public record SweepRow(
+        int tol,
+        int lookahead,
+        int k,
+        SimMetrics simulated,
+        SimImprovements improvements
+) {}
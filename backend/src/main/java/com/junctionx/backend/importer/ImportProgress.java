@@ -0,0 +1,113 @@
+package com.junctionx.backend.importer;
+
+import com.junctionx.backend.dto.ImportStatus;
+import com.junctionx.backend.dto.SheetImportStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of the current (or last) workbook import, updated by the import threads and
+ * read by /debug/import/status. One instance per application; an import starts a fresh run.
+ */
+@Component
+public class ImportProgress {
+
+    public enum State { PENDING, RUNNING, DONE, FAILED, SKIPPED }
+
+    /** Counters for one sheet; all methods are safe to call from any thread. */
+    public static final class Sheet {
+        private final String name;
+        private final LongAdder read = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder unknownEarners = new LongAdder();
+        private volatile State state = State.PENDING;
+        private volatile long written;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile String error;
+
+        private Sheet(String name) {
+            this.name = name;
+        }
+
+        public void started() {
+            startNanos = System.nanoTime();
+            state = State.RUNNING;
+        }
+
+        public void rowRead()       { read.increment(); }
+        public void rowRejected()   { rejected.increment(); }
+        public void unknownEarner() { unknownEarners.increment(); }
+
+        /** {@code written} rows were inserted or changed. */
+        public void done(long written) {
+            this.written = written;
+            finish(State.DONE);
+        }
+
+        public void skipped() {
+            finish(State.SKIPPED);
+        }
+
+        public void failed(Throwable t) {
+            error = t.getMessage();
+            finish(State.FAILED);
+        }
+
+        public long unknownEarners() {
+            return unknownEarners.sum();
+        }
+
+        private void finish(State s) {
+            endNanos = System.nanoTime();
+            state = s;
+        }
+
+        public SheetImportStatus status() {
+            long ms = startNanos == 0 ? 0 : ((endNanos != 0 ? endNanos : System.nanoTime()) - startNanos) / 1_000_000L;
+            long n = read.sum();
+            long unchanged = state == State.DONE ? Math.max(0, n - rejected.sum() - written) : 0;
+            return new SheetImportStatus(name, state.name(), n, written, unchanged, rejected.sum(), unknownEarners.sum(),
+                    ms, ms == 0 ? 0 : n * 1000.0 / ms, error);
+        }
+    }
+
+    private record Run(String source, Instant startedAt, long startNanos, Map<String, Sheet> sheets) {}
+
+    private volatile Run run;
+    private volatile String state = "IDLE";
+    private volatile long endNanos;
+
+    /** Starts a new run with every sheet PENDING. */
+    public synchronized void start(String source, List<String> sheetNames) {
+        Map<String, Sheet> sheets = new LinkedHashMap<>();
+        sheetNames.forEach(n -> sheets.put(n, new Sheet(n)));
+        run = new Run(source, Instant.now(), System.nanoTime(), sheets);
+        endNanos = 0;
+        state = "RUNNING";
+    }
+
+    public Sheet sheet(String name) {
+        Sheet s = run.sheets().get(name);
+        if (s == null) throw new IllegalArgumentException("Sheet not part of this import: " + name);
+        return s;
+    }
+
+    public void finished(boolean ok) {
+        endNanos = System.nanoTime();
+        state = ok ? "DONE" : "FAILED";
+    }
+
+    public ImportStatus snapshot() {
+        Run r = run;
+        if (r == null) return new ImportStatus(null, state, null, 0, List.of());
+        long ms = ((endNanos != 0 ? endNanos : System.nanoTime()) - r.startNanos()) / 1_000_000L;
+        return new ImportStatus(r.source(), state, r.startedAt().toString(), ms,
+                r.sheets().values().stream().map(Sheet::status).toList());
+    }
+}
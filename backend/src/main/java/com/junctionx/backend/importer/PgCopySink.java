@@ -0,0 +1,177 @@
+package com.junctionx.backend.importer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams rows into a temp staging table with {@code COPY ... FROM STDIN (FORMAT csv)}, then
+ * moves them into the target with a single {@code INSERT ... SELECT} on {@link #finish()}
+ * (optionally preceded by one cleanup statement).
+ * The staging table copies the target's column types but none of its constraints, so the
+ * final statement decides what gets in (joins, ON CONFLICT). Must run inside a transaction:
+ * the staging table is dropped on commit.
+ */
+public final class PgCopySink<E> implements RowSink<E> {
+
+    private static final Logger log = LoggerFactory.getLogger(PgCopySink.class);
+    private static final int FLUSH_CHARS = 64 * 1024;
+
+    /**
+     * Where one entity type goes. {@code insertSelect} is the final statement and {@code before}
+     * (nullable) runs ahead of it, both with {@code %s} standing for the staging table.
+     */
+    public record Target<E>(String table, List<String> columns, Function<E, Object[]> values,
+                            String before, String insertSelect) {
+
+        /**
+         * Upsert on {@code key}: the last staged row per key wins, existing rows are only
+         * rewritten when a value differs, so re-importing the same data touches nothing.
+         * {@code where} (nullable) filters staged rows, aliased {@code s}.
+         */
+        public static <E> Target<E> upsert(String table, List<String> columns, List<String> key,
+                                           Function<E, Object[]> values, String where) {
+            return new Target<>(table, columns, values, null, upsertSql(table, columns, key, key, where));
+        }
+
+        /**
+         * {@link #upsert} on {@code id} for a table whose unique key has to be ({@code id},
+         * {@code partitionKey}), as on a partitioned table: an existing row whose partitionKey
+         * differs from the staged one is deleted first, so it is replaced rather than kept twice.
+         */
+        public static <E> Target<E> upsertById(String table, List<String> columns, String id, String partitionKey,
+                                               Function<E, Object[]> values, String where) {
+            String before = "DELETE FROM public." + table + " t\n"
+                    + "USING (SELECT DISTINCT ON (s." + id + ") s." + id + ", s." + partitionKey + "\n"
+                    + "       FROM %s s\n"
+                    + (where == null ? "" : "       WHERE " + where + "\n")
+                    + "       ORDER BY s." + id + ", s.ctid DESC) m\n"
+                    + "WHERE t." + id + " = m." + id + " AND t." + partitionKey + " <> m." + partitionKey;
+            return new Target<>(table, columns, values, before,
+                    upsertSql(table, columns, List.of(id), List.of(id, partitionKey), where));
+        }
+
+        // The last staged row per distinctKey, inserted or updated on conflictKey
+        // (only inserted when every column is part of the key: there is nothing to update)
+        private static String upsertSql(String table, List<String> columns, List<String> distinctKey,
+                                        List<String> conflictKey, String where) {
+            List<String> rest = columns.stream().filter(c -> !conflictKey.contains(c)).toList();
+            String insert = "INSERT INTO public." + table + " (" + String.join(", ", columns) + ")\n"
+                    + "SELECT DISTINCT ON (" + prefixed("s.", distinctKey) + ") " + prefixed("s.", columns) + "\n"
+                    + "FROM %s s\n"
+                    + (where == null ? "" : "WHERE " + where + "\n")
+                    + "ORDER BY " + prefixed("s.", distinctKey) + ", s.ctid DESC\n"
+                    + "ON CONFLICT (" + String.join(", ", conflictKey) + ") ";
+            if (rest.isEmpty()) return insert + "DO NOTHING";
+            return insert + "DO UPDATE SET "
+                    + String.join(", ", rest.stream().map(c -> c + " = EXCLUDED." + c).toList()) + "\n"
+                    + "WHERE (" + prefixed(table + ".", rest) + ") IS DISTINCT FROM (" + prefixed("EXCLUDED.", rest) + ")";
+        }
+
+        private static String prefixed(String prefix, List<String> cols) {
+            return String.join(", ", cols.stream().map(c -> prefix + c).toList());
+        }
+    }
+
+    private final Connection conn;
+    private final Target<E> target;
+    private final String stage;
+    private final CopyIn copy;
+    private final StringBuilder buf = new StringBuilder(FLUSH_CHARS + 1024);
+
+    public PgCopySink(Connection conn, Target<E> target) {
+        this.conn = conn;
+        this.target = target;
+        this.stage = "import_stage_" + target.table();
+        String cols = String.join(", ", target.columns());
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + stage);
+            st.execute("CREATE TEMP TABLE " + stage + " ON COMMIT DROP AS SELECT " + cols
+                    + " FROM public." + target.table() + " WITH NO DATA");
+            this.copy = conn.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + stage + " (" + cols + ") FROM STDIN WITH (FORMAT csv)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot start COPY into " + target.table(), e);
+        }
+    }
+
+    @Override
+    public void add(E row) {
+        Object[] v = target.values().apply(row);
+        for (int i = 0; i < v.length; i++) {
+            if (i > 0) buf.append(',');
+            appendCsv(buf, v[i]);
+        }
+        buf.append('\n');
+        if (buf.length() >= FLUSH_CHARS) flush();
+    }
+
+    /** Ends the COPY and runs the INSERT ... SELECT; returns the rows inserted or changed. */
+    @Override
+    public long finish() {
+        try {
+            flush();
+            long staged = copy.endCopy();
+            try (Statement st = conn.createStatement()) {
+                if (target.before() != null) {
+                    int replaced = st.executeUpdate(target.before().formatted(stage));
+                    if (replaced > 0) log.info("{}: {} rows replaced under a new key", target.table(), replaced);
+                }
+                int inserted = st.executeUpdate(target.insertSelect().formatted(stage));
+                st.execute("DROP TABLE " + stage);
+                if (inserted < staged) {
+                    log.info("{}: {} of {} staged rows inserted or changed", target.table(), inserted, staged);
+                }
+                return inserted;
+            }
+        } catch (SQLException e) {
+            cancelQuietly();
+            throw new IllegalStateException("COPY into " + target.table() + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void flush() {
+        if (buf.isEmpty()) return;
+        byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+        buf.setLength(0);
+        try {
+            copy.writeToCopy(bytes, 0, bytes.length);
+        } catch (SQLException e) {
+            cancelQuietly();
+            throw new IllegalStateException("COPY into " + target.table() + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void cancelQuietly() {
+        try {
+            if (copy.isActive()) copy.cancelCopy();
+        } catch (SQLException ignored) {
+            // the surrounding transaction rolls back anyway
+        }
+    }
+
+    // CSV as COPY reads it: unquoted empty = NULL, everything textual is quoted
+    private static void appendCsv(StringBuilder sb, Object v) {
+        if (v == null) return;
+        if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+            return;
+        }
+        String s = v instanceof Enum<?> e ? e.name() : v.toString(); // java.time prints ISO-8601
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,41 @@
+package com.junctionx.backend.importer;
+
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Destination for one sheet's parsed rows. {@link #finish()} flushes and returns the rows written. */
+public interface RowSink<E> {
+
+    void add(E row);
+
+    long finish();
+
+    /** Buffers rows and writes them through {@code saveAll} every {@code batch} rows. */
+    static <E> RowSink<E> jpa(CrudRepository<E, ?> repo, int batch) {
+        return new RowSink<>() {
+            private final List<E> buf = new ArrayList<>(batch);
+            private long written;
+
+            @Override
+            public void add(E row) {
+                buf.add(row);
+                if (buf.size() == batch) flush();
+            }
+
+            @Override
+            public long finish() {
+                flush();
+                return written;
+            }
+
+            private void flush() {
+                if (buf.isEmpty()) return;
+                repo.saveAll(buf);
+                written += buf.size();
+                buf.clear();
+            }
+        };
+    }
+}
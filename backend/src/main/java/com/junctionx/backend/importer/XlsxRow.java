@@ -0,0 +1,71 @@
+package com.junctionx.backend.importer;
+
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One data row from {@link XlsxStreamReader}. Cells are already typed: String, Double,
+ * Boolean, LocalDateTime (numeric cells with a date format), or null. The typed getters look
+ * columns up by lower-cased header name and return null for missing or unparsable values.
+ */
+public record XlsxRow(int rowNum, Map<String, Integer> header, Object[] cells) {
+
+    private static final DateTimeFormatter[] DATE_TIMES = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm")
+    };
+
+    public Object get(String column) {
+        Integer i = header.get(column.toLowerCase(Locale.ROOT));
+        return i == null || i >= cells.length ? null : cells[i];
+    }
+
+    /** Text of the cell, trimmed; numbers print the way Excel shows them ("12", not "12.0"). */
+    public String getString(String column) {
+        Object v = get(column);
+        if (v == null) return null;
+        if (v instanceof Double d) return NumberToTextConverter.toText(d);
+        if (v instanceof Boolean b) return b ? "TRUE" : "FALSE";
+        return v.toString().trim();
+    }
+
+    public Double getDouble(String column) {
+        Object v = get(column);
+        if (v == null) return null;
+        if (v instanceof Double d) return d;
+        try { return Double.parseDouble(v.toString().trim()); } catch (Exception e) { return null; }
+    }
+
+    public Integer getInt(String column) {
+        Double d = getDouble(column);
+        return d == null ? null : (int) Math.round(d);
+    }
+
+    public LocalDate getDate(String column) {
+        Object v = get(column);
+        if (v == null) return null;
+        if (v instanceof LocalDateTime t) return t.toLocalDate();
+        String s = v.toString().trim();
+        if (s.length() < 10) return null;
+        try { return LocalDate.parse(s.substring(0, 10)); } catch (Exception ignored) { return null; }
+    }
+
+    public LocalDateTime getDateTime(String column) {
+        Object v = get(column);
+        if (v == null) return null;
+        if (v instanceof LocalDateTime t) return t;
+        String s = v.toString().trim();
+        if (s.isEmpty()) return null;
+        for (DateTimeFormatter f : DATE_TIMES) {
+            try { return LocalDateTime.parse(s, f); } catch (Exception ignored) {}
+        }
+        LocalDate d = getDate(column);
+        return d == null ? null : d.atStartOfDay();
+    }
+}
@@ -0,0 +1,251 @@
+package com.junctionx.backend.importer;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.springframework.core.io.Resource;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Event-model XLSX reader: each sheet's XML is parsed with SAX and handed out one
+ * {@link XlsxRow} at a time, so heap use is the shared-strings table plus one row, whatever the
+ * sheet size. Row 1 of every sheet is the header. Sheets can be read in any order, once or
+ * several times, and from several threads.
+ */
+public final class XlsxStreamReader implements AutoCloseable {
+
+    private final OPCPackage pkg;
+    private final ReadOnlySharedStringsTable strings;
+    private final StylesTable styles;
+    private final Map<String, PackagePart> sheets = new LinkedHashMap<>();
+    private final Map<Integer, Boolean> dateStyles = new ConcurrentHashMap<>();
+    private byte[] sharedStringsDigest;
+
+    private XlsxStreamReader(OPCPackage pkg) throws IOException {
+        this.pkg = pkg;
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            this.strings = new ReadOnlySharedStringsTable(pkg);
+            this.styles = reader.getStylesTable();
+            XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (it.hasNext()) {
+                it.next().close();
+                sheets.put(it.getSheetName(), it.getSheetPart());
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Not a readable XLSX: " + e.getMessage(), e);
+        }
+    }
+
+    /** Opens a file resource in place (read-only); other resources are read from their stream. */
+    public static XlsxStreamReader open(Resource resource) throws IOException {
+        OPCPackage pkg;
+        try {
+            if (resource.isFile()) {
+                pkg = OPCPackage.open(resource.getFile(), PackageAccess.READ);
+            } else {
+                try (InputStream in = resource.getInputStream()) {
+                    pkg = OPCPackage.open(in);
+                }
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Cannot open " + resource.getDescription() + ": " + e.getMessage(), e);
+        }
+        return new XlsxStreamReader(pkg);
+    }
+
+    public boolean hasSheet(String name) {
+        return sheets.containsKey(name);
+    }
+
+    /** Streams the data rows of {@code name} (header excluded); returns how many were handed out. */
+    public long read(String name, Consumer<XlsxRow> rows) {
+        PackagePart part = sheets.get(name);
+        if (part == null) return 0;
+        SheetHandler handler = new SheetHandler(rows);
+        try (InputStream in = part.getInputStream()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            parser.parse(new InputSource(in));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read sheet " + name + ": " + e.getMessage(), e);
+        }
+        return handler.emitted;
+    }
+
+    /**
+     * SHA-256 over the sheet's XML and the shared-strings table (cells refer to strings by
+     * index, so either changing changes the content), plus any {@code salt}. Hex, or null if
+     * the sheet does not exist.
+     */
+    public String fingerprint(String name, String... salt) {
+        PackagePart part = sheets.get(name);
+        if (part == null) return null;
+        MessageDigest md = sha256();
+        for (String s : salt) md.update(String.valueOf(s).getBytes(StandardCharsets.UTF_8));
+        try {
+            md.update(sharedStringsDigest());
+            digest(md, part);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read sheet " + name + ": " + e.getMessage(), e);
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private synchronized byte[] sharedStringsDigest() throws IOException {
+        if (sharedStringsDigest == null) {
+            MessageDigest md = sha256();
+            for (PackagePart p : pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType())) digest(md, p);
+            sharedStringsDigest = md.digest();
+        }
+        return sharedStringsDigest;
+    }
+
+    private static void digest(MessageDigest md, PackagePart part) throws IOException {
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = part.getInputStream()) {
+            for (int n; (n = in.read(buf)) > 0; ) md.update(buf, 0, n);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        pkg.revert(); // read-only: never write back
+    }
+
+    private boolean isDateStyle(int styleIdx) {
+        return dateStyles.computeIfAbsent(styleIdx, i -> {
+            XSSFCellStyle st = styles.getStyleAt(i);
+            return st != null && DateUtil.isADateFormat(st.getDataFormat(), st.getDataFormatString());
+        });
+    }
+
+    // Collects <c> values of one <row>; emits rows once the header row is known
+    private final class SheetHandler extends DefaultHandler {
+        private final Consumer<XlsxRow> out;
+        private final StringBuilder text = new StringBuilder();
+        private Map<String, Integer> header;
+        private List<Object> cells = new ArrayList<>();
+        private int rowNum;
+        private int col;
+        private String type;
+        private int style;
+        private boolean inValue;
+        private long emitted;
+
+        SheetHandler(Consumer<XlsxRow> out) {
+            this.out = out;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes a) {
+            switch (localName) {
+                case "row" -> {
+                    cells = new ArrayList<>(cells.size());
+                    String r = a.getValue("r");
+                    rowNum = r == null ? rowNum + 1 : Integer.parseInt(r);
+                    col = -1;
+                }
+                case "c" -> {
+                    String ref = a.getValue("r");
+                    col = ref == null ? col + 1 : column(ref);
+                    type = a.getValue("t");
+                    String s = a.getValue("s");
+                    style = s == null ? -1 : Integer.parseInt(s);
+                    text.setLength(0);
+                }
+                case "v", "t" -> inValue = true;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) text.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> inValue = false;
+                case "c" -> {
+                    while (cells.size() <= col) cells.add(null);
+                    cells.set(col, value());
+                }
+                case "row" -> {
+                    if (header == null) {
+                        header = new HashMap<>();
+                        for (int i = 0; i < cells.size(); i++) {
+                            Object v = cells.get(i);
+                            if (v != null) header.put(v.toString().trim().toLowerCase(Locale.ROOT), i);
+                        }
+                    } else if (!cells.isEmpty()) {
+                        out.accept(new XlsxRow(rowNum, header, cells.toArray()));
+                        emitted++;
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        private Object value() {
+            String v = text.toString();
+            if (v.isEmpty()) return null;
+            if (type == null || "n".equals(type)) {
+                double d;
+                try { d = Double.parseDouble(v); } catch (NumberFormatException e) { return v; }
+                return style >= 0 && isDateStyle(style) ? DateUtil.getLocalDateTime(d) : (Object) d;
+            }
+            return switch (type) {
+                case "s" -> strings.getItemAt(Integer.parseInt(v)).getString();
+                case "b" -> "1".equals(v);
+                case "e" -> null;
+                default -> v; // inlineStr, str (formula result)
+            };
+        }
+    }
+
+    // "AB12" -> 27
+    private static int column(String ref) {
+        int n = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char ch = ref.charAt(i);
+            if (ch < 'A' || ch > 'Z') break;
+            n = n * 26 + (ch - 'A' + 1);
+        }
+        return n - 1;
+    }
+}
@@ -16,7 +16,8 @@ import jakarta.persistence.*;
 public class CancellationRate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cancellation_rates_seq")
+    @SequenceGenerator(name = "cancellation_rates_seq", sequenceName = "cancellation_rates_seq", allocationSize = 50)
     @Column(name = "cancellation_id")
     private Long id;
 
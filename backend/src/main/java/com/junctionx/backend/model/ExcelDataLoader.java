@@ -1,29 +1,54 @@
 package com.junctionx.backend.model;
 
+import com.junctionx.backend.dto.SheetImportStatus;
 import com.junctionx.backend.model.enums.ProductType;
 import com.junctionx.backend.model.enums.VehicleType;
 import com.junctionx.backend.model.enums.FuelType;
 import com.junctionx.backend.model.enums.EarnerType;
+import com.junctionx.backend.importer.ImportProgress;
+import com.junctionx.backend.importer.PgCopySink;
+import com.junctionx.backend.importer.RowSink;
+import com.junctionx.backend.importer.XlsxRow;
+import com.junctionx.backend.importer.XlsxStreamReader;
 import com.junctionx.backend.repository.*;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.InputStream;
+import javax.sql.DataSource;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 /**
  * Loads mock data from the XLSX on the classpath (app.import.xlsx) into the DB.
- * Sheets used: earners, rides_trips, eats_orders, incentives_weekly, surge_by_hour, heatmap.
+ * Sheets used: earners, rides_trips, eats_orders, incentives_weekly, surge_by_hour, heatmap,
+ * cancellation_rates, weather_daily. The workbook is streamed sheet by sheet (XlsxStreamReader),
+ * never loaded as a whole.
+ *
+ * app.import.mode=copy (default) streams each sheet through COPY into a staging table and one
+ * INSERT ... SELECT per sheet, one transaction per sheet; app.import.mode=jpa keeps the
+ * saveAll path.
+ *
+ * Earners go first (jobs and incentives resolve against them); the other sheets then run in
+ * parallel on up to app.import.parallelism threads. Progress is exposed via ImportProgress.
+ *
+ * Re-running is safe: COPY targets upsert on natural keys, and with app.import.skip-unchanged a
+ * sheet whose content hash matches the last import (import_fingerprints) is not read at all.
+ * Sheets that resolve earners include the earners hash, so new earners re-import them.
  */
 @Component
 @Profile("import")
@@ -32,6 +57,15 @@ public class ExcelDataLoader implements CommandLineRunner {
     @Value("${app.import.xlsx}")
     private String classpathXlsx;
 
+    @Value("${app.import.mode:copy}")
+    private String mode;
+
+    @Value("${app.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.import.skip-unchanged:true}")
+    private boolean skipUnchanged;
+
     @Autowired private EarnerRepository earnerRepo;
     @Autowired private JobRepository jobRepo;
     @Autowired private IncentiveRepository incentiveRepo;
@@ -39,77 +73,248 @@ public class ExcelDataLoader implements CommandLineRunner {
     @Autowired private HeatmapRepository heatmapRepo;
     @Autowired private CancellationRateRepository cancellationRateRepo;
     @Autowired private WeatherRepository weatherRepo;
-
+    @Autowired private ApplicationEventPublisher events;
+    @Autowired private DataSource dataSource;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private ImportProgress progress;
+    @Autowired private ImportLedgerRepository ledger;
 
     private static final Logger log = LoggerFactory.getLogger(ExcelDataLoader.class);
     private static final int BATCH = 1000;
+    private static final List<String> SHEETS = List.of("earners", "rides_trips", "eats_orders",
+            "incentives_weekly", "surge_by_hour", "heatmap", "cancellation_rates", "weather_daily");
+    private static final Set<String> NEEDS_EARNERS = Set.of("rides_trips", "eats_orders", "incentives_weekly");
+
+    /** Reference for building jobs/incentives plus the home city incentives fall back to. */
+    private record KnownEarner(Earner ref, Integer homeCityId) {}
+
+    // earner_id -> reference, built once after the earners sheet; read-only afterwards
+    private volatile Map<String, KnownEarner> earners = Map.of();
 
     @Override
     public void run(String... args) throws Exception {
-        try (InputStream in = new ClassPathResource(classpathXlsx).getInputStream();
-             Workbook wb = new XSSFWorkbook(in)) {
+        progress.start(classpathXlsx, SHEETS);
+        ledger.install();
+        boolean ok = false;
+        try (XlsxStreamReader xlsx = XlsxStreamReader.open(new ClassPathResource(classpathXlsx))) {
+            load(xlsx, "earners", earnerRepo, EARNERS, this::earnerRow);
+            indexEarners();
+
+            parallel(List.of(
+                    // both write jobs (and fire its rollup triggers on the same driver-days): keep them serial
+                    () -> {
+                        load(xlsx, "rides_trips", jobRepo, JOBS, r -> jobRow(r, "rides_trips", ProductType.RIDE));
+                        load(xlsx, "eats_orders", jobRepo, JOBS, r -> jobRow(r, "eats_orders", ProductType.EATS));
+                    },
+                    () -> load(xlsx, "incentives_weekly", incentiveRepo, INCENTIVES, r -> incentiveRow(r, "incentives_weekly")),
+                    () -> load(xlsx, "surge_by_hour", surgeRepo, SURGE, this::surgeRow),
+                    () -> load(xlsx, "heatmap", heatmapRepo, HEATMAP, this::heatmapRow),
+                    () -> load(xlsx, "cancellation_rates", cancellationRateRepo, CANCELLATIONS, this::cancellationRateRow),
+                    () -> load(xlsx, "weather_daily", weatherRepo, WEATHER, this::weatherRow)));
+            ok = true;
+        } finally {
+            progress.finished(ok);
+        }
+        events.publishEvent(new JobsImportedEvent(classpathXlsx));
+    }
 
-            importEarners(wb, "earners");
-            importJobs(wb, "rides_trips", ProductType.RIDE);
-            importJobs(wb, "eats_orders", ProductType.EATS);
-            importIncentives(wb, "incentives_weekly");
-            importSurge(wb, "surge_by_hour");
-            importHeatmap(wb, "heatmap");
-            importCancellationRates(wb, "cancellation_rates");
-            importWeather(wb, "weather_daily");
+    private void parallel(List<Runnable> tasks) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tasks.size())),
+                Thread.ofPlatform().name("import-", 1).factory());
+        try {
+            List<Future<?>> running = tasks.stream().<Future<?>>map(pool::submit).toList();
+            for (Future<?> f : running) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
+    /**
+     * Streams one sheet into COPY (inside its own transaction) or JPA, depending on app.import.mode.
+     * {@code parse} returns null for rows to skip.
+     */
+    private <E> void load(XlsxStreamReader xlsx, String sheet, CrudRepository<E, ?> repo,
+                          PgCopySink.Target<E> target, Function<XlsxRow, E> parse) {
+        ImportProgress.Sheet p = progress.sheet(sheet);
+        if (!xlsx.hasSheet(sheet)) {
+            p.skipped();
+            return;
+        }
+        String hash = NEEDS_EARNERS.contains(sheet)
+                ? xlsx.fingerprint(sheet, xlsx.fingerprint("earners"))
+                : xlsx.fingerprint(sheet);
+        if (skipUnchanged && hash.equals(ledger.fingerprint(sheet).orElse(null))) {
+            p.skipped();
+            log.info("{} unchanged since last import, skipped", sheet);
+            return;
+        }
 
+        p.started();
+        try {
+            Long n;
+            if (copyMode()) {
+                n = tx.execute(s -> {
+                    long w = drain(xlsx, sheet, parse, p,
+                            new PgCopySink<>(DataSourceUtils.getConnection(dataSource), target));
+                    ledger.record(sheet, hash, w);
+                    return w;
+                });
+            } else {
+                n = drain(xlsx, sheet, parse, p, RowSink.jpa(repo, BATCH));
+                ledger.record(sheet, hash, n);
+            }
+            p.done(n == null ? 0 : n);
+        } catch (RuntimeException e) {
+            p.failed(e);
+            throw e;
+        }
 
+        SheetImportStatus st = p.status();
+        log.info("Imported {} of {} rows from {} ({} ms, {} rows/s, {})",
+                st.rowsWritten(), st.rowsRead(), sheet, st.elapsedMs(), Math.round(st.rowsPerSec()), mode);
+        if (p.unknownEarners() > 0) {
+            log.warn("{}: skipped {} rows whose earner id is not in earners", sheet, p.unknownEarners());
         }
     }
 
-    /* ========================= Earners ========================= */
+    private static <E> long drain(XlsxStreamReader xlsx, String sheet, Function<XlsxRow, E> parse,
+                                  ImportProgress.Sheet p, RowSink<E> sink) {
+        xlsx.read(sheet, r -> {
+            p.rowRead();
+            E e = parse.apply(r);
+            if (e != null) sink.add(e);
+            else p.rowRejected();
+        });
+        return sink.finish();
+    }
+
+    private boolean copyMode() {
+        return !"jpa".equalsIgnoreCase(mode);
+    }
 
-    private void importEarners(Workbook wb, String sheetName) {
-        Sheet sh = wb.getSheet(sheetName);
-        if (sh == null) return;
+    /** One id query instead of a findById per job/incentive row. */
+    private void indexEarners() {
+        Map<String, KnownEarner> m = new HashMap<>();
+        for (EarnerRepository.EarnerKey k : earnerRepo.findAllKeys()) {
+            m.put(k.getEarnerId(), new KnownEarner(reference(k.getEarnerId()), k.getHomeCityId()));
+        }
+        earners = m;
+        log.info("Indexed {} earners", m.size());
+    }
 
-        Map<String,Integer> c = header(sh.getRow(0));
-        List<Earner> buf = new ArrayList<>(BATCH);
+    // JPA gets an uninitialised proxy (only its id is read); COPY just needs the id
+    private Earner reference(String id) {
+        if (!copyMode()) return earnerRepo.getReferenceById(id);
+        Earner e = new Earner();
+        e.setEarnerId(id);
+        return e;
+    }
 
-        for (int i = 1; i <= sh.getLastRowNum(); i++) {
-            Row r = sh.getRow(i);
-            if (r == null) continue;
+    private KnownEarner earner(String sheet, String id) {
+        KnownEarner e = earners.get(id);
+        if (e == null) progress.sheet(sheet).unknownEarner();
+        return e;
+    }
 
-            String id = getString(r, c, "earner_id");
-            if (isBlank(id)) continue;
+    /* ===================== COPY targets ===================== */
+
+    // Upserts on each table's natural key (ImportLedger creates the unique indexes), so a re-import
+    // updates rows in place instead of duplicating them.
+
+    private static final PgCopySink.Target<Earner> EARNERS = PgCopySink.Target.upsert("earners",
+            List.of("earner_id", "earner_type", "vehicle_type", "fuel_type", "rating", "home_city_id"),
+            List.of("earner_id"),
+            e -> new Object[]{e.getEarnerId(), e.getEarnerType(), e.getVehicleType(), e.getFuelType(),
+                    e.getRating(), e.getHomeCityId()},
+            "s.earner_type IS NOT NULL AND s.vehicle_type IS NOT NULL AND s.fuel_type IS NOT NULL"
+                    + " AND s.rating IS NOT NULL AND s.home_city_id IS NOT NULL");
+
+    // pickup_h3 / drop_h3 are generated from the hex strings. Keyed on job_id; the unique key is
+    // (job_id, start_time) as partitioning requires, so a job whose start moved is replaced.
+    private static final PgCopySink.Target<Job> JOBS = PgCopySink.Target.upsertById("jobs",
+            List.of("job_id", "driver_id", "city_id", "requester_id", "product_type", "product",
+                    "fulfillment_job_status", "start_time", "end_time",
+                    "pickup_lat", "pickup_lon", "pickup_hex_id9", "drop_lat", "drop_lon", "drop_hex_id9",
+                    "distance_km", "duration_mins", "net_earnings"),
+            "job_id", "start_time",
+            j -> new Object[]{j.getId(), j.getDriver().getEarnerId(), j.getCityId(), j.getRequesterId(),
+                    j.getProductType(), j.getProduct(), j.getisCompleted(), j.getStartTime(), j.getEndTime(),
+                    j.getPickupLat(), j.getPickupLon(), j.getPickupHexId9(),
+                    j.getDropLat(), j.getDropLon(), j.getDropHexId9(),
+                    j.getDistanceKm(), j.getDurationMins(), j.getNetEarnings()},
+            "EXISTS (SELECT 1 FROM public.earners e WHERE e.earner_id = s.driver_id)");
+
+    private static final PgCopySink.Target<IncentiveWeekly> INCENTIVES = PgCopySink.Target.upsert("incentives_weekly",
+            List.of("earner_id", "city_id", "week", "target_jobs", "completed_jobs", "achieved_bonus", "bonus_eur"),
+            List.of("earner_id", "week"),
+            iw -> new Object[]{iw.getEarner().getEarnerId(), iw.getCityId(), iw.getWeek(), iw.getTargetJobs(),
+                    iw.getCompletedJobs(), iw.getAchievedBonus(), iw.getBonusEur()},
+            "s.city_id IS NOT NULL AND s.target_jobs IS NOT NULL AND s.completed_jobs IS NOT NULL"
+                    + " AND EXISTS (SELECT 1 FROM public.earners e WHERE e.earner_id = s.earner_id)");
+
+    private static final PgCopySink.Target<SurgeByHour> SURGE = PgCopySink.Target.upsert("surge_by_hour",
+            List.of("city_id", "hour", "surge_multiplier"),
+            List.of("city_id", "hour"),
+            s -> new Object[]{s.getCityId(), s.getHour(), s.getSurgeMultiplier()},
+            null);
+
+    private static final PgCopySink.Target<HeatMap> HEATMAP = PgCopySink.Target.upsert("heatmap",
+            List.of("map_id", "city_id", "hexagon_id9", "predicted_eph", "predicted_std"),
+            List.of("map_id", "hexagon_id9"),
+            h -> new Object[]{h.getMapId(), h.getCityId(), h.getHexagonId9(), h.getPredictedEph(), h.getPredictedStd()},
+            null);
+
+    private static final PgCopySink.Target<CancellationRate> CANCELLATIONS = PgCopySink.Target.upsert("cancellation_rates",
+            List.of("city_id", "hexagon_id9", "cancellation_rate"),
+            List.of("city_id", "hexagon_id9"),
+            cr -> new Object[]{cr.getCityId(), cr.getHexagonId9(), cr.getCancellationRate()},
+            "s.cancellation_rate IS NOT NULL");
+
+    private static final PgCopySink.Target<Weather> WEATHER = PgCopySink.Target.upsert("weather_daily",
+            List.of("city_id", "date", "weather"),
+            List.of("city_id", "date"),
+            w -> new Object[]{w.getCityId(), w.getDate(), w.getWeather()},
+            "s.weather IS NOT NULL");
 
-            Earner e = new Earner();     // package-scope constructor ok
-            e.setEarnerId(id);
+    /* ========================= Earners ========================= */
 
-            // Optional scalar fields
-            Double rating = getDouble(r, c, "rating");
-            if (rating != null) {
-                try { e.setRating(rating); } catch (Throwable ignored) {}
-            }
-            Integer homeCity = getInt(r, c, "home_city_id");
-            if (homeCity != null) {
-                try { e.setHomeCityId(homeCity); } catch (Throwable ignored) {}
-            }
+    private Earner earnerRow(XlsxRow r) {
+        String id = r.getString("earner_id");
+        if (isBlank(id)) return null;
 
-            // Enum fields: parse Strings → proper enums before setting
-            String vtype = getString(r, c, "vehicle_type");
-            if (!isBlank(vtype)) {
-                try { e.setVehicleType(parseEnum(VehicleType.class, vtype, null)); } catch (Throwable ignored) {}
-            }
-            String ftype = getString(r, c, "fuel_type");
-            if (!isBlank(ftype)) {
-                try { e.setFuelType(parseEnum(FuelType.class, ftype, null)); } catch (Throwable ignored) {}
-            }
-            String etype = getString(r, c, "earner_type");
-            if (!isBlank(etype)) {
-                try { e.setEarnerType(parseEnum(EarnerType.class, etype, null)); } catch (Throwable ignored) {}
-            }
+        Earner e = new Earner();     // package-scope constructor ok
+        e.setEarnerId(id);
 
-            buf.add(e);
-            if (buf.size() == BATCH) { earnerRepo.saveAll(buf); buf.clear(); }
+        // Optional scalar fields
+        Double rating = r.getDouble("rating");
+        if (rating != null) {
+            try { e.setRating(rating); } catch (Throwable ignored) {}
+        }
+        Integer homeCity = r.getInt("home_city_id");
+        if (homeCity != null) {
+            try { e.setHomeCityId(homeCity); } catch (Throwable ignored) {}
+        }
+
+        // Enum fields: parse Strings → proper enums before setting
+        String vtype = r.getString("vehicle_type");
+        if (!isBlank(vtype)) {
+            try { e.setVehicleType(parseEnum(VehicleType.class, vtype, null)); } catch (Throwable ignored) {}
+        }
+        String ftype = r.getString("fuel_type");
+        if (!isBlank(ftype)) {
+            try { e.setFuelType(parseEnum(FuelType.class, ftype, null)); } catch (Throwable ignored) {}
         }
-        if (!buf.isEmpty()) earnerRepo.saveAll(buf);
+        String etype = r.getString("earner_type");
+        if (!isBlank(etype)) {
+            try { e.setEarnerType(parseEnum(EarnerType.class, etype, null)); } catch (Throwable ignored) {}
+        }
+
+        return e;
     }
 
     /* ====================== Jobs (rides & eats) ====================== */
@@ -125,150 +330,115 @@ public class ExcelDataLoader implements CommandLineRunner {
      *   (no 'product' column → we set "EATS"),
      *   same timing/geo/effort/money columns as rides.
      */
-    private void importJobs(Workbook wb, String sheet, ProductType type) {
-        Sheet sh = wb.getSheet(sheet);
-        if (sh == null) return;
-
-        Map<String,Integer> c = header(sh.getRow(0));
-        List<Job> buf = new ArrayList<>(BATCH);
-
+    private Job jobRow(XlsxRow r, String sheet, ProductType type) {
         final boolean isRides = "rides_trips".equalsIgnoreCase(sheet);
         final String colJobId     = isRides ? "ride_id"   : "order_id";
         final String colDriverId  = isRides ? "driver_id" : "courier_id";
         final String colRequester = isRides ? "rider_id"  : "customer_id";
 
-        for (int i = 1; i <= sh.getLastRowNum(); i++) {
-            Row r = sh.getRow(i);
-            if (r == null) continue;
-
-            String jobId = getString(r, c, colJobId);
-            String driverId = getString(r, c, colDriverId);
-            String requesterId = getString(r, c, colRequester);
-            Integer cityId = getInt(r, c, "city_id");
-            LocalDateTime startLdt = getDateTime(r, c, "start_time");
-            Double net = getDouble(r, c, "net_earnings");
-
-            // Required by your Job entity (non-nullable fields):
-            if (isBlank(jobId) || isBlank(driverId) || isBlank(requesterId) ||
-                    cityId == null || startLdt == null || net == null) {
-                continue;
-            }
-
-            Earner driver = earnerRepo.findById(driverId).orElse(null);
-            if (driver == null) continue;
-
-            ZoneOffset startOff = ZoneId.systemDefault().getRules().getOffset(startLdt);
-            OffsetDateTime start = startLdt.atOffset(startOff);
-
-            LocalDateTime endLdt = getDateTime(r, c, "end_time");
-            OffsetDateTime end = (endLdt == null) ? null
-                    : endLdt.atOffset(ZoneId.systemDefault().getRules().getOffset(endLdt));
-
-            // Pickup
-            Double pickupLat = getDouble(r, c, "pickup_lat");
-            Double pickupLon = getDouble(r, c, "pickup_lon");
-            String pickupHex = getString(r, c, "pickup_hex_id9");
-
-            // Drop
-            Double dropLat = getDouble(r, c, "drop_lat");
-            Double dropLon = getDouble(r, c, "drop_lon");
-            String dropHex = getString(r, c, "drop_hex_id9");
-
-            // Effort
-            Double distanceKm = getDouble(r, c, "distance_km");
-            Integer durationMins = getInt(r, c, "duration_mins");
-
-            // Product label
-            String product = isRides ? getString(r, c, "product") : "EATS";
-            if (isBlank(product)) product = isRides ? "RIDE" : "EATS";
-
-            // Build via your all-args constructor (no setters used)
-            Job j = new Job(
-                    jobId,
-                    driver,
-                    cityId,
-                    requesterId,
-                    type,
-                    product,
-                    Boolean.TRUE,      // isCompleted (no status column in sheets)
-                    start,
-                    end,
-                    pickupLat, pickupLon, pickupHex,
-                    dropLat,   dropLon,   dropHex,
-                    distanceKm, durationMins,
-                    net
-            );
-
-            buf.add(j);
-            if (buf.size() == BATCH) { jobRepo.saveAll(buf); buf.clear(); }
+        String jobId = r.getString(colJobId);
+        String driverId = r.getString(colDriverId);
+        String requesterId = r.getString(colRequester);
+        Integer cityId = r.getInt("city_id");
+        LocalDateTime startLdt = r.getDateTime("start_time");
+        Double net = r.getDouble("net_earnings");
+
+        // Required by your Job entity (non-nullable fields):
+        if (isBlank(jobId) || isBlank(driverId) || isBlank(requesterId) ||
+                cityId == null || startLdt == null || net == null) {
+            return null;
         }
-        if (!buf.isEmpty()) jobRepo.saveAll(buf);
+
+        KnownEarner driver = earner(sheet, driverId);
+        if (driver == null) return null;
+
+        ZoneOffset startOff = ZoneId.systemDefault().getRules().getOffset(startLdt);
+        OffsetDateTime start = startLdt.atOffset(startOff);
+
+        LocalDateTime endLdt = r.getDateTime("end_time");
+        OffsetDateTime end = (endLdt == null) ? null
+                : endLdt.atOffset(ZoneId.systemDefault().getRules().getOffset(endLdt));
+
+        // Pickup
+        Double pickupLat = r.getDouble("pickup_lat");
+        Double pickupLon = r.getDouble("pickup_lon");
+        String pickupHex = r.getString("pickup_hex_id9");
+
+        // Drop
+        Double dropLat = r.getDouble("drop_lat");
+        Double dropLon = r.getDouble("drop_lon");
+        String dropHex = r.getString("drop_hex_id9");
+
+        // Effort
+        Double distanceKm = r.getDouble("distance_km");
+        Integer durationMins = r.getInt("duration_mins");
+
+        // Product label
+        String product = isRides ? r.getString("product") : "EATS";
+        if (isBlank(product)) product = isRides ? "RIDE" : "EATS";
+
+        // Build via your all-args constructor (no setters used)
+        Job j = new Job(
+                jobId,
+                driver.ref(),
+                cityId,
+                requesterId,
+                type,
+                product,
+                Boolean.TRUE,      // isCompleted (no status column in sheets)
+                start,
+                end,
+                pickupLat, pickupLon, pickupHex,
+                dropLat,   dropLon,   dropHex,
+                distanceKm, durationMins,
+                net
+        );
+
+        return j;
     }
 
     /* ========================= Incentives ========================= */
 
-    private void importIncentives(Workbook wb, String sheet) {
-        Sheet sh = wb.getSheet(sheet);
-        if (sh == null) return;
-
-        Map<String,Integer> c = header(sh.getRow(0));
-        List<IncentiveWeekly> buf = new ArrayList<>(BATCH);
-
-        for (int i = 1; i <= sh.getLastRowNum(); i++) {
-            Row r = sh.getRow(i);
-            if (r == null) continue;
+    private IncentiveWeekly incentiveRow(XlsxRow r, String sheet) {
+        String earnerId = r.getString("earner_id");
+        LocalDate weekDate = r.getDate("week");
+        if (isBlank(earnerId) || weekDate == null) return null;
 
-            String earnerId = getString(r, c, "earner_id");
-            LocalDate weekDate = getDate(r, c, "week");
-            if (isBlank(earnerId) || weekDate == null) continue;
+        KnownEarner e = earner(sheet, earnerId);
+        if (e == null) return null;
 
-            Earner e = earnerRepo.findById(earnerId).orElse(null);
-            if (e == null) continue;
+        IncentiveWeekly iw = new IncentiveWeekly();
+        iw.setEarner(e.ref());
+        iw.setWeek(weekDate.toString());
 
-            IncentiveWeekly iw = new IncentiveWeekly();
-            iw.setEarner(e);
-            iw.setWeek(weekDate.toString());
+        Integer city = r.getInt("city_id");
+        if (city == null) city = e.homeCityId();
+        if (city != null) iw.setCityId(city);
 
-            Integer target = getInt(r, c, "target_jobs");
-            if (target != null) iw.setTargetJobs(target);
-            Integer completed = getInt(r, c, "completed_jobs");
-            if (completed != null) iw.setCompletedJobs(completed);
-            Double bonus = getDouble(r, c, "bonus_eur");
-            if (bonus != null) iw.setAchievedBonus(bonus);
+        Integer target = r.getInt("target_jobs");
+        if (target != null) iw.setTargetJobs(target);
+        Integer completed = r.getInt("completed_jobs");
+        if (completed != null) iw.setCompletedJobs(completed);
+        Double bonus = r.getDouble("bonus_eur");
+        if (bonus != null) iw.setAchievedBonus(bonus);
 
-            buf.add(iw);
-            if (buf.size() == BATCH) { incentiveRepo.saveAll(buf); buf.clear(); }
-        }
-        if (!buf.isEmpty()) incentiveRepo.saveAll(buf);
+        return iw;
     }
 
     /* ======================= Surge by hour ======================= */
 
-    private void importSurge(Workbook wb, String sheet) {
-        Sheet sh = wb.getSheet(sheet);
-        if (sh == null) return;
-
-        Map<String,Integer> c = header(sh.getRow(0));
-        List<SurgeByHour> buf = new ArrayList<>(BATCH);
-
-        for (int i = 1; i <= sh.getLastRowNum(); i++) {
-            Row r = sh.getRow(i);
-            if (r == null) continue;
+    private SurgeByHour surgeRow(XlsxRow r) {
+        Integer city = r.getInt("city_id");
+        Integer hour = r.getInt("hour");
+        Double mult  = r.getDouble("surge_multiplier");
+        if (city == null || hour == null || mult == null) return null;
 
-            Integer city = getInt(r, c, "city_id");
-            Integer hour = getInt(r, c, "hour");
-            Double mult  = getDouble(r, c, "surge_multiplier");
-            if (city == null || hour == null || mult == null) continue;
+        SurgeByHour s = new SurgeByHour();
+        s.setCityId(city);
+        s.setHour(hour);
+        s.setSurgeMultiplier(mult);
 
-            SurgeByHour s = new SurgeByHour();
-            s.setCityId(city);
-            s.setHour(hour);
-            s.setSurgeMultiplier(mult);
-
-            buf.add(s);
-            if (buf.size() == BATCH) { surgeRepo.saveAll(buf); buf.clear(); }
-        }
-        if (!buf.isEmpty()) surgeRepo.saveAll(buf);
+        return s;
     }
 
     /* =========================== Heatmap =========================== */
@@ -278,158 +448,68 @@ public class ExcelDataLoader implements CommandLineRunner {
      *  msg.map_id, msg.city_id, msg.predictions.hexagon_id_9,
      *  msg.predictions.predicted_eph, msg.predictions.predicted_std
      */
-    private void importHeatmap(Workbook wb, String sheet) {
-        Sheet sh = wb.getSheet(sheet); if (sh == null) return;
+    private HeatMap heatmapRow(XlsxRow r) {
+        String mapId = r.getString("msg.map_id");
+        String hex9  = r.getString("msg.predictions.hexagon_id_9");
+        if (mapId == null || mapId.isBlank()) return null;   // required
+        if (hex9  == null || hex9.isBlank()) return null;     // nullable=false in your entity
 
-        Map<String,Integer> c = header(sh.getRow(0));
-        List<HeatMap> buf = new ArrayList<>(BATCH);
+        HeatMap h = new HeatMap();      // PK 'id' is auto-generated
+        h.setMapId(mapId);
+        h.setHexagonId9(hex9);
 
-        for (int i = 1; i <= sh.getLastRowNum(); i++) {
-            Row r = sh.getRow(i); if (r == null) continue;
+        Integer city = r.getInt("msg.city_id");
+        if (city != null) h.setCityId(city);
 
-            String mapId = getString(r, c, "msg.map_id");
-            String hex9  = getString(r, c, "msg.predictions.hexagon_id_9");
-            if (mapId == null || mapId.isBlank()) continue;   // required
-            if (hex9  == null || hex9.isBlank()) continue;     // nullable=false in your entity
+        Double eph = r.getDouble("msg.predictions.predicted_eph");
+        if (eph != null) h.setPredictedEph(eph);
 
-            HeatMap h = new HeatMap();      // PK 'id' is auto-generated
-            h.setMapId(mapId);
-            h.setHexagonId9(hex9);
+        Double std = r.getDouble("msg.predictions.predicted_std");
+        if (std != null) h.setPredictedStd(std);
 
-            Integer city = getInt(r, c, "msg.city_id");
-            if (city != null) h.setCityId(city);
-
-            Double eph = getDouble(r, c, "msg.predictions.predicted_eph");
-            if (eph != null) h.setPredictedEph(eph);
-
-            Double std = getDouble(r, c, "msg.predictions.predicted_std");
-            if (std != null) h.setPredictedStd(std);
-
-            buf.add(h);
-            if (buf.size() == BATCH) { heatmapRepo.saveAll(buf); buf.clear(); }
-        }
-        if (!buf.isEmpty()) heatmapRepo.saveAll(buf);
+        return h;
     }
 
-    private void importCancellationRates(Workbook wb, String sheet) {
-        Sheet sh = wb.getSheet(sheet); if (sh == null) return;
-
-        Map<String,Integer> c = header(sh.getRow(0));
-        List<CancellationRate> buf = new ArrayList<>(BATCH);
+    private CancellationRate cancellationRateRow(XlsxRow r) {
+        Integer cityId = r.getInt("city_id");
+        String hex9    = r.getString("hexagon_id9");
+        Double pct     = r.getDouble("cancellation_rate_pct"); // sheet header
 
-        for (int i = 1; i <= sh.getLastRowNum(); i++) {
-            Row r = sh.getRow(i); if (r == null) continue;
+        // Required fields (your entity has hexagonId9 NOT NULL)
+        if (cityId == null || hex9 == null || hex9.isBlank()) return null;
 
-            Integer cityId = getInt(r, c, "city_id");
-            String hex9    = getString(r, c, "hexagon_id9");
-            Double pct     = getDouble(r, c, "cancellation_rate_pct"); // sheet header
+        CancellationRate cr = new CancellationRate();
+        cr.setCityId(cityId);
+        cr.setHexagonId9(hex9);
 
-            // Required fields (your entity has hexagonId9 NOT NULL)
-            if (cityId == null || hex9 == null || hex9.isBlank()) continue;
+        // Entity field is "cancellationRate" (NOT *_pct)
+        if (pct != null) cr.setCancellationRate(pct);
 
-            CancellationRate cr = new CancellationRate();
-            cr.setCityId(cityId);
-            cr.setHexagonId9(hex9);
-
-            // Entity field is "cancellationRate" (NOT *_pct)
-            if (pct != null) cr.setCancellationRate(pct);
-
-            // job_count exists in the sheet but is not a field on the entity → ignore
-            buf.add(cr);
-
-            if (buf.size() == BATCH) { cancellationRateRepo.saveAll(buf); buf.clear(); }
-        }
-        if (!buf.isEmpty()) cancellationRateRepo.saveAll(buf);
+        // job_count exists in the sheet but is not a field on the entity → ignore
+        return cr;
     }
 
-    private void importWeather(Workbook wb, String sheet) {
-        Sheet sh = wb.getSheet(sheet); if (sh == null) return;
+    private Weather weatherRow(XlsxRow r) {
+        // Sheet columns: date, city_id, weather
+        LocalDate date  = r.getDate("date");
+        Integer  cityId = r.getInt("city_id");
+        String   wx     = r.getString("weather");
 
-        Map<String,Integer> c = header(sh.getRow(0));
-        List<Weather> buf = new ArrayList<>(BATCH);
+        // Required: cityId + date (keep it strict)
+        if (cityId == null || date == null) return null;
 
-        for (int i = 1; i <= sh.getLastRowNum(); i++) {
-            Row r = sh.getRow(i); if (r == null) continue;
+        Weather w = new Weather();    // JPA no-args ctor
+        w.setCityId(cityId);
+        w.setDate(date);
+        if (wx != null && !wx.isBlank()) w.setWeather(wx);
 
-            // Sheet columns: date, city_id, weather
-            LocalDate date  = getDate(r, c, "date");
-            Integer  cityId = getInt(r, c, "city_id");
-            String   wx     = getString(r, c, "weather");
-
-            // Required: cityId + date (keep it strict)
-            if (cityId == null || date == null) continue;
-
-            Weather w = new Weather();    // JPA no-args ctor
-            w.setCityId(cityId);
-            w.setDate(date);
-            if (wx != null && !wx.isBlank()) w.setWeather(wx);
-
-            buf.add(w);
-            if (buf.size() == BATCH) { weatherRepo.saveAll(buf); buf.clear(); }
-        }
-        if (!buf.isEmpty()) weatherRepo.saveAll(buf);
+        return w;
     }
 
 
 
     /* ============================ Helpers ============================ */
 
-    private static Map<String,Integer> header(Row r){
-        Map<String,Integer> m = new HashMap<>();
-        if (r == null) return m;
-        for (int i = 0; i < r.getLastCellNum(); i++) {
-            Cell c = r.getCell(i);
-            if (c != null) {
-                c.setCellType(CellType.STRING); // deprecated, OK for import utility
-                m.put(c.getStringCellValue().trim().toLowerCase(Locale.ROOT), i);
-            }
-        }
-        return m;
-    }
-
-    private static String getString(Row r, Map<String,Integer> c, String n){
-        Integer i = c.get(n.toLowerCase(Locale.ROOT)); if (i == null) return null;
-        Cell x = r.getCell(i); if (x == null) return null;
-        x.setCellType(CellType.STRING);
-        String s = x.getStringCellValue();
-        return s == null ? null : s.trim();
-    }
-
-    private static Integer getInt(Row r, Map<String,Integer> c, String n){
-        Double d = getDouble(r, c, n);
-        return d == null ? null : (int) Math.round(d);
-    }
-
-    private static Double getDouble(Row r, Map<String,Integer> c, String n){
-        Integer i = c.get(n.toLowerCase(Locale.ROOT)); if (i == null) return null;
-        Cell x = r.getCell(i); if (x == null) return null;
-        if (x.getCellType() == CellType.NUMERIC) return x.getNumericCellValue();
-        try { return Double.parseDouble(x.toString().trim()); } catch (Exception e) { return null; }
-    }
-
-    private static LocalDate getDate(Row r, Map<String,Integer> c, String n){
-        Integer i = c.get(n.toLowerCase(Locale.ROOT)); if (i == null) return null;
-        Cell x = r.getCell(i); if (x == null) return null;
-        if (x.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(x))
-            return x.getLocalDateTimeCellValue().toLocalDate();
-        String s = x.toString().trim();
-        if (s.isEmpty()) return null;
-        try { return LocalDate.parse(s.substring(0,10)); } catch (Exception ignored) { return null; }
-    }
-
-    private static LocalDateTime getDateTime(Row r, Map<String,Integer> c, String n){
-        Integer i = c.get(n.toLowerCase(Locale.ROOT)); if (i == null) return null;
-        Cell x = r.getCell(i); if (x == null) return null;
-        if (x.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(x))
-            return x.getLocalDateTimeCellValue();
-        String s = x.toString().trim();
-        if (s.isEmpty()) return null;
-        for (String p : new String[]{"yyyy-MM-dd HH:mm:ss","yyyy-MM-dd'T'HH:mm:ss","yyyy/MM/dd HH:mm"}){
-            try { return LocalDateTime.parse(s, DateTimeFormatter.ofPattern(p)); } catch (Exception ignored) {}
-        }
-        try { return LocalDate.parse(s.substring(0,10)).atStartOfDay(); } catch (Exception ignored) { return null; }
-    }
-
     private static <E extends Enum<E>> E parseEnum(Class<E> e, String v, E fb){
         if (v == null) return fb;
         try { return Enum.valueOf(e, v.trim().toUpperCase(Locale.ROOT)); }
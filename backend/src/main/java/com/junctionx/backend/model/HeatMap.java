@@ -7,7 +7,8 @@ import jakarta.persistence.*;
 public class HeatMap {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "heatmap_seq")
+    @SequenceGenerator(name = "heatmap_seq", sequenceName = "heatmap_seq", allocationSize = 50)
     @Column(name = "id") // new surrogate PK
     private Long id;
 
@@ -17,7 +17,8 @@ import jakarta.persistence.*;
 public class IncentiveWeekly {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incentives_weekly_seq")
+    @SequenceGenerator(name = "incentives_weekly_seq", sequenceName = "incentives_weekly_seq", allocationSize = 50)
     @Column(name = "incentive_id")
     private Long id;
 
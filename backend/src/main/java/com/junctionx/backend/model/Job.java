@@ -17,8 +17,8 @@ import java.time.OffsetDateTime;
         indexes = {
                 @Index(name = "idx_jobs_driver_time", columnList = "driver_id,start_time"),
                 @Index(name = "idx_jobs_city_time",   columnList = "city_id,start_time"),
-                @Index(name = "idx_jobs_pickup_hex",  columnList = "pickup_hex_id9"),
-                @Index(name = "idx_jobs_drop_hex",    columnList = "drop_hex_id9")
+                @Index(name = "idx_jobs_city_pickup_h3_time", columnList = "city_id,pickup_h3,start_time"),
+                @Index(name = "idx_jobs_drop_h3",     columnList = "drop_h3")
         }
 )
 public class Job {
@@ -82,6 +82,15 @@ public class Job {
     @Column(name = "pickup_hex_id9", length = 16)
     private String pickupHexId9;
 
+    /**
+     * Same cell as a 64-bit H3 index; computed by Postgres from pickup_hex_id9 (NULL unless that
+     * is 1-16 hex digits), read-only here.
+     */
+    @Column(name = "pickup_h3", insertable = false, updatable = false,
+            columnDefinition = "bigint GENERATED ALWAYS AS (CASE WHEN pickup_hex_id9 ~ '^[0-9a-fA-F]{1,16}$'"
+                    + " THEN ('x' || lpad(pickup_hex_id9, 16, '0'))::bit(64)::bigint END) STORED")
+    private Long pickupH3;
+
     // ---- Drop ----
 
     @Column(name = "drop_lat")
@@ -94,6 +103,15 @@ public class Job {
     @Column(name = "drop_hex_id9", length = 16)
     private String dropHexId9;
 
+    /**
+     * Same cell as a 64-bit H3 index; computed by Postgres from drop_hex_id9 (NULL unless that
+     * is 1-16 hex digits), read-only here.
+     */
+    @Column(name = "drop_h3", insertable = false, updatable = false,
+            columnDefinition = "bigint GENERATED ALWAYS AS (CASE WHEN drop_hex_id9 ~ '^[0-9a-fA-F]{1,16}$'"
+                    + " THEN ('x' || lpad(drop_hex_id9, 16, '0'))::bit(64)::bigint END) STORED")
+    private Long dropH3;
+
     // ---- Effort ----
 
     @Column(name = "distance_km")
@@ -248,6 +266,10 @@ public class Job {
         this.pickupLon = pickupLon;
     }
 
+    public Long getPickupH3() {
+        return pickupH3;
+    }
+
     public Double getDropLat() {
         return dropLat;
     }
@@ -272,6 +294,10 @@ public class Job {
         this.dropHexId9 = dropHexId9;
     }
 
+    public Long getDropH3() {
+        return dropH3;
+    }
+
     public Double getDistanceKm() {
         return distanceKm;
     }
@@ -0,0 +1,4 @@
+package com.junctionx.backend.model;
+
+/** Published after an import wrote jobs, so anything derived from them can be dropped. */
+public record JobsImportedEvent(String source) {}
@@ -0,0 +1,7 @@
+package com.junctionx.backend.model;
+
+/**
+ * Published after SnapshotJobsReadRepository swapped in a new jobs snapshot, so results derived
+ * from the previous one can be dropped.
+ */
+public record JobsSnapshotRefreshedEvent(int rows) {}
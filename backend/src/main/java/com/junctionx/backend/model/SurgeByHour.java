@@ -16,7 +16,8 @@ import jakarta.persistence.*;
 public class SurgeByHour {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "surge_by_hour_seq")
+    @SequenceGenerator(name = "surge_by_hour_seq", sequenceName = "surge_by_hour_seq", allocationSize = 50)
     @Column(name = "surge_id")
     private Long id;
 
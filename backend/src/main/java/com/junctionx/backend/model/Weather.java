@@ -17,7 +17,8 @@ import java.time.LocalDate;
 public class Weather {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weather_daily_seq")
+    @SequenceGenerator(name = "weather_daily_seq", sequenceName = "weather_daily_seq", allocationSize = 50)
     @Column(name = "weather_id")
     private Long id;
 
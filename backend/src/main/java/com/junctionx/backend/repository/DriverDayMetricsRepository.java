@@ -0,0 +1,181 @@
+package com.junctionx.backend.repository;
+
+import com.junctionx.backend.sim.dto.BaselineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * driver_day_metrics: one row per (driver, Amsterdam day) with the same totals
+ * BaselineService derives from the trips, so a baseline is a single primary-key read.
+ * Kept current by statement-level triggers on jobs (any writer: JPA, batch, COPY); rows for
+ * affected driver-days are recomputed from jobs. Installed after JobsPartitionManager, since
+ * converting jobs to partitions would drop triggers on the old heap.
+ */
+@Repository
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DriverDayMetricsRepository implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverDayMetricsRepository.class);
+
+    /*
+     * Same rules as BaselineService.fromTrips: trips ordered by start; idle = positive whole-minute
+     * gaps between a trip's start and the previous trip's end; rest = gaps >= 30 min;
+     * city/start hex from the first trip, shift end = end of the last trip. %s filters jobs j.
+     */
+    private static final String ROLLUP_SELECT = """
+            SELECT driver_id, day,
+                   (array_agg(city_id   ORDER BY start_time, job_id))[1],
+                   min(start_time),
+                   (array_agg(end_time  ORDER BY start_time DESC, job_id DESC))[1],
+                   (array_agg(pickup_h3 ORDER BY start_time, job_id))[1],
+                   coalesce(sum(duration_mins), 0),
+                   coalesce(sum(net_earnings), 0),
+                   coalesce(sum(gap) FILTER (WHERE gap > 0), 0),
+                   coalesce(sum(gap) FILTER (WHERE gap >= 30), 0),
+                   count(*)
+            FROM (
+              SELECT j.job_id, j.driver_id, j.city_id, j.start_time, j.end_time, j.pickup_h3,
+                     j.duration_mins, j.net_earnings,
+                     (j.start_time AT TIME ZONE 'Europe/Amsterdam')::date AS day,
+                     floor(extract(epoch FROM j.start_time - lag(j.end_time) OVER w) / 60) AS gap
+              FROM public.jobs j
+              WHERE %s
+              WINDOW w AS (PARTITION BY j.driver_id, (j.start_time AT TIME ZONE 'Europe/Amsterdam')::date
+                           ORDER BY j.start_time, j.job_id)
+            ) t
+            GROUP BY driver_id, day""";
+
+    private static final String INSERT_COLUMNS = """
+            INSERT INTO public.driver_day_metrics
+              (driver_id, day, city_id, shift_start, shift_end, start_h3,
+               drive_mins, earnings, idle_mins, rest_mins, trips_count)
+            """;
+
+    private static final List<String> DDL = List.of("""
+            CREATE TABLE IF NOT EXISTS public.driver_day_metrics (
+              driver_id   varchar(16)      NOT NULL,
+              day         date             NOT NULL,
+              city_id     integer,
+              shift_start timestamptz      NOT NULL,
+              shift_end   timestamptz,
+              start_h3    bigint,
+              drive_mins  double precision NOT NULL,
+              earnings    double precision NOT NULL,
+              idle_mins   double precision NOT NULL,
+              rest_mins   double precision NOT NULL,
+              trips_count integer          NOT NULL,
+              PRIMARY KEY (driver_id, day)
+            )""", """
+            CREATE OR REPLACE FUNCTION public.refresh_driver_day_metrics(p_driver text, p_day date)
+            RETURNS void LANGUAGE plpgsql AS $fn$
+            BEGIN
+              DELETE FROM public.driver_day_metrics WHERE driver_id = p_driver AND day = p_day;
+            """ + INSERT_COLUMNS + ROLLUP_SELECT.formatted("""
+                  j.driver_id = p_driver
+                  AND j.start_time >= (p_day::timestamp AT TIME ZONE 'Europe/Amsterdam')
+                  AND j.start_time <  ((p_day + 1)::timestamp AT TIME ZONE 'Europe/Amsterdam')""") + """
+            ;
+            END
+            $fn$""", """
+            CREATE OR REPLACE FUNCTION public.jobs_driver_day_metrics_trg()
+            RETURNS trigger LANGUAGE plpgsql AS $fn$
+            BEGIN
+              IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                PERFORM public.refresh_driver_day_metrics(k.driver_id, k.day)
+                FROM (SELECT DISTINCT driver_id, (start_time AT TIME ZONE 'Europe/Amsterdam')::date AS day
+                      FROM new_rows) k;
+              END IF;
+              IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                PERFORM public.refresh_driver_day_metrics(k.driver_id, k.day)
+                FROM (SELECT DISTINCT driver_id, (start_time AT TIME ZONE 'Europe/Amsterdam')::date AS day
+                      FROM old_rows) k;
+              END IF;
+              RETURN NULL;
+            END
+            $fn$""",
+            "DROP TRIGGER IF EXISTS jobs_ddm_ins ON public.jobs",
+            "DROP TRIGGER IF EXISTS jobs_ddm_upd ON public.jobs",
+            "DROP TRIGGER IF EXISTS jobs_ddm_del ON public.jobs",
+            """
+            CREATE TRIGGER jobs_ddm_ins AFTER INSERT ON public.jobs
+              REFERENCING NEW TABLE AS new_rows
+              FOR EACH STATEMENT EXECUTE FUNCTION public.jobs_driver_day_metrics_trg()""", """
+            CREATE TRIGGER jobs_ddm_upd AFTER UPDATE ON public.jobs
+              REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+              FOR EACH STATEMENT EXECUTE FUNCTION public.jobs_driver_day_metrics_trg()""", """
+            CREATE TRIGGER jobs_ddm_del AFTER DELETE ON public.jobs
+              REFERENCING OLD TABLE AS old_rows
+              FOR EACH STATEMENT EXECUTE FUNCTION public.jobs_driver_day_metrics_trg()""");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+
+    public DriverDayMetricsRepository(JdbcTemplate jdbc,
+                                      TransactionTemplate tx,
+                                      @Value("${jobs.driver-day-metrics.enabled:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.enabled = enabled;
+    }
+
+    /** Creates table, function and triggers; backfills when the rollup is empty but jobs is not. */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        tx.executeWithoutResult(s -> DDL.forEach(jdbc::execute));
+
+        boolean empty = jdbc.queryForList("SELECT 1 FROM public.driver_day_metrics LIMIT 1").isEmpty();
+        boolean hasJobs = !jdbc.queryForList("SELECT 1 FROM public.jobs LIMIT 1").isEmpty();
+        if (empty && hasJobs) refreshAll();
+    }
+
+    /** Rebuilds every row from jobs in one set-based pass. Returns the number of driver-days. */
+    public int refreshAll() {
+        Integer n = tx.execute(s -> {
+            jdbc.execute("TRUNCATE public.driver_day_metrics");
+            return jdbc.update(INSERT_COLUMNS + ROLLUP_SELECT.formatted("TRUE"));
+        });
+        log.info("driver_day_metrics rebuilt: {} driver-days", n);
+        return n == null ? 0 : n;
+    }
+
+    /** Precomputed baseline for the driver-day, or empty if there is no row (yet). */
+    public Optional<BaselineMetrics> find(String driverId, LocalDate day) {
+        if (!enabled) return Optional.empty();
+        List<BaselineMetrics> rows = jdbc.query("""
+                SELECT drive_mins, earnings, idle_mins, rest_mins, city_id,
+                       shift_start, shift_end, start_h3, trips_count
+                FROM public.driver_day_metrics
+                WHERE driver_id = ? AND day = ?""",
+                (rs, i) -> {
+                    int city = rs.getInt("city_id");
+                    String cityId = rs.wasNull() ? null : String.valueOf(city);
+                    return new BaselineMetrics(
+                            rs.getDouble("drive_mins"),
+                            rs.getDouble("earnings"),
+                            rs.getDouble("idle_mins"),
+                            rs.getDouble("rest_mins"),
+                            cityId,
+                            rs.getObject("shift_start", OffsetDateTime.class),
+                            rs.getObject("shift_end", OffsetDateTime.class),
+                            rs.getLong("start_h3"),
+                            rs.getInt("trips_count"));
+                },
+                driverId, day);
+        return rows.stream().findFirst();
+    }
+}
@@ -2,5 +2,18 @@ package com.junctionx.backend.repository;
 
 import com.junctionx.backend.model.Earner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface EarnerRepository extends JpaRepository<Earner, String> {}
+import java.util.List;
+
+public interface EarnerRepository extends JpaRepository<Earner, String> {
+
+    /** Id and home city of every earner, without loading the entities. */
+    @Query("SELECT e.earnerId AS earnerId, e.homeCityId AS homeCityId FROM Earner e")
+    List<EarnerKey> findAllKeys();
+
+    interface EarnerKey {
+        String getEarnerId();
+        Integer getHomeCityId();
+    }
+}
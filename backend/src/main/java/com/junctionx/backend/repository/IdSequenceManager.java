@@ -0,0 +1,93 @@
+package com.junctionx.backend.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Surrogate ids come from pooled sequences (allocationSize 50) so Hibernate can batch inserts;
+ * IDENTITY would force one round trip per row to read the key back. Hibernate creates the
+ * sequences, this converts tables created with IDENTITY columns (once, moving the sequence past
+ * the existing ids) and gives the id column a default for COPY and plain SQL inserts.
+ *
+ * <p>The default is {@code pooled_nextval}, which allocates like Hibernate's pooled optimizer:
+ * one nextval reserves the block (value - 50, value] and the session hands it out one id at a
+ * time. A plain nextval default would spend a whole block per row. The session's position is
+ * kept in two custom settings, so a new connection starts a new block and a rolled-back
+ * transaction may reuse ids it never committed. Blocks never overlap Hibernate's.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class IdSequenceManager implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceManager.class);
+    private static final int ALLOCATION = 50; // must match @SequenceGenerator.allocationSize
+
+    private record SequencedId(String table, String column, String sequence) {}
+
+    private static final List<SequencedId> IDS = List.of(
+            new SequencedId("heatmap", "id", "heatmap_seq"),
+            new SequencedId("incentives_weekly", "incentive_id", "incentives_weekly_seq"),
+            new SequencedId("surge_by_hour", "surge_id", "surge_by_hour_seq"),
+            new SequencedId("cancellation_rates", "cancellation_id", "cancellation_rates_seq"),
+            new SequencedId("weather_daily", "weather_id", "weather_daily_seq"));
+
+    // Next id and block end per sequence, in session settings pooled_ids.<seq>_next/_top
+    private static final String POOLED_NEXTVAL = """
+            CREATE OR REPLACE FUNCTION public.pooled_nextval(seq text, allocation int) RETURNS bigint
+            LANGUAGE plpgsql AS $$
+            DECLARE
+              next_id bigint := nullif(current_setting('pooled_ids.' || seq || '_next', true), '')::bigint;
+              top     bigint := nullif(current_setting('pooled_ids.' || seq || '_top', true), '')::bigint;
+            BEGIN
+              IF next_id IS NULL OR next_id > top THEN
+                top := nextval('public.' || seq);
+                next_id := greatest(top - allocation + 1, 1); -- a fresh sequence's first value is 1
+              END IF;
+              PERFORM set_config('pooled_ids.' || seq || '_next', (next_id + 1)::text, false);
+              PERFORM set_config('pooled_ids.' || seq || '_top', top::text, false);
+              RETURN next_id;
+            END $$""";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    public IdSequenceManager(JdbcTemplate jdbc, TransactionTemplate tx) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbc.execute(POOLED_NEXTVAL);
+        for (SequencedId id : IDS) {
+            List<String> identity = jdbc.queryForList("""
+                    SELECT is_identity FROM information_schema.columns
+                    WHERE table_schema = 'public' AND table_name = ? AND column_name = ?""",
+                    String.class, id.table(), id.column());
+            if (identity.isEmpty()) continue; // table not created yet
+
+            tx.executeWithoutResult(s -> {
+                jdbc.execute("CREATE SEQUENCE IF NOT EXISTS public." + id.sequence()
+                        + " START WITH 1 INCREMENT BY " + ALLOCATION);
+                if ("YES".equals(identity.get(0))) {
+                    jdbc.execute("ALTER TABLE public." + id.table() + " ALTER COLUMN " + id.column() + " DROP IDENTITY");
+                    // next block starts above every existing id
+                    jdbc.queryForObject("SELECT setval('public." + id.sequence() + "', coalesce(max(" + id.column()
+                            + "), 0) + " + ALLOCATION + ") FROM public." + id.table(), Long.class);
+                    log.info("{}.{}: IDENTITY replaced by sequence {}", id.table(), id.column(), id.sequence());
+                }
+                jdbc.execute("ALTER TABLE public." + id.table() + " ALTER COLUMN " + id.column()
+                        + " SET DEFAULT public.pooled_nextval('" + id.sequence() + "', " + ALLOCATION + ")");
+            });
+        }
+    }
+}
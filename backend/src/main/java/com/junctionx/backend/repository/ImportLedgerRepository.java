@@ -0,0 +1,118 @@
+package com.junctionx.backend.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * What the incremental import needs in the database: unique indexes on each table's natural
+ * key (the entities only have surrogate IDENTITY keys, so Hibernate does not create them) and
+ * import_fingerprints, the content hash of every sheet as last imported.
+ */
+@Repository
+public class ImportLedgerRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportLedgerRepository.class);
+
+    private record NaturalKey(String table, String id, List<String> columns) {
+        String index() { return "ux_" + table + "_natural"; }
+    }
+
+    private static final List<NaturalKey> KEYS = List.of(
+            new NaturalKey("incentives_weekly", "incentive_id", List.of("earner_id", "week")),
+            new NaturalKey("surge_by_hour", "surge_id", List.of("city_id", "hour")),
+            new NaturalKey("heatmap", "id", List.of("map_id", "hexagon_id9")),
+            new NaturalKey("cancellation_rates", "cancellation_id", List.of("city_id", "hexagon_id9")),
+            new NaturalKey("weather_daily", "weather_id", List.of("city_id", "date")));
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean dedupExisting;
+
+    public ImportLedgerRepository(JdbcTemplate jdbc, TransactionTemplate tx,
+                                  @Value("${app.import.dedup-existing:false}") boolean dedupExisting) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.dedupExisting = dedupExisting;
+    }
+
+    /**
+     * Creates import_fingerprints and any missing natural-key index. A table still holding
+     * duplicates from earlier insert-only imports stops the import, unless
+     * app.import.dedup-existing is set: then all but the newest row per key are moved to
+     * {@code <table>_duplicates} before the index is built.
+     */
+    public void install() {
+        jdbc.execute("""
+                CREATE TABLE IF NOT EXISTS public.import_fingerprints (
+                  sheet        varchar(64) PRIMARY KEY,
+                  sha256       char(64)    NOT NULL,
+                  rows_written bigint      NOT NULL,
+                  imported_at  timestamptz NOT NULL DEFAULT now()
+                )""");
+
+        for (NaturalKey k : KEYS) {
+            if (indexExists(k.index())) continue;
+            String cols = String.join(", ", k.columns());
+            String same = String.join(" AND ", k.columns().stream().map(c -> "a." + c + " = b." + c).toList());
+            boolean duplicates = !jdbc.queryForList("SELECT 1 FROM public." + k.table()
+                    + " GROUP BY " + cols + " HAVING count(*) > 1 LIMIT 1").isEmpty();
+            if (duplicates && !dedupExisting) {
+                throw new IllegalStateException(k.table() + " has rows sharing (" + cols + "), so it cannot be"
+                        + " upserted; re-run with app.import.dedup-existing=true to keep the newest of each and"
+                        + " move the rest to " + k.table() + "_duplicates");
+            }
+            tx.executeWithoutResult(s -> {
+                int moved = 0;
+                if (duplicates) {
+                    jdbc.execute("CREATE TABLE IF NOT EXISTS public." + k.table() + "_duplicates"
+                            + " (LIKE public." + k.table() + ")");
+                    moved = jdbc.update("WITH removed AS (DELETE FROM public." + k.table() + " a USING public."
+                            + k.table() + " b WHERE " + same + " AND a." + k.id() + " < b." + k.id()
+                            + " RETURNING a.*) INSERT INTO public." + k.table() + "_duplicates SELECT * FROM removed");
+                }
+                jdbc.execute("CREATE UNIQUE INDEX " + k.index() + " ON public." + k.table() + " (" + cols + ")");
+                log.info("{}: natural key ({}) installed{}", k.table(), cols,
+                        moved == 0 ? "" : ", " + moved + " duplicate rows moved to " + k.table() + "_duplicates");
+            });
+        }
+
+        // The jobs upsert's ON CONFLICT (job_id, start_time): partitioned jobs has it as its primary
+        // key, a plain heap (primary key job_id) needs the index
+        if ("r".equals(relkind("jobs")) && !indexExists("ux_jobs_job_start")) {
+            jdbc.execute("CREATE UNIQUE INDEX ux_jobs_job_start ON public.jobs (job_id, start_time)");
+        }
+    }
+
+    public Optional<String> fingerprint(String sheet) {
+        return jdbc.queryForList("SELECT sha256 FROM public.import_fingerprints WHERE sheet = ?",
+                String.class, sheet).stream().findFirst();
+    }
+
+    public void record(String sheet, String sha256, long rowsWritten) {
+        jdbc.update("""
+                INSERT INTO public.import_fingerprints (sheet, sha256, rows_written, imported_at)
+                VALUES (?, ?, ?, now())
+                ON CONFLICT (sheet) DO UPDATE
+                  SET sha256 = EXCLUDED.sha256, rows_written = EXCLUDED.rows_written, imported_at = now()""",
+                sheet, sha256, rowsWritten);
+    }
+
+    private boolean indexExists(String name) {
+        return !jdbc.queryForList("SELECT 1 FROM pg_indexes WHERE schemaname = 'public' AND indexname = ?",
+                name).isEmpty();
+    }
+
+    private String relkind(String table) {
+        List<String> kinds = jdbc.queryForList("""
+                SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = 'public' AND c.relname = ?""", String.class, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+}
@@ -0,0 +1,257 @@
+package com.junctionx.backend.repository;
+
+import com.junctionx.backend.model.JobsImportedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps public.jobs range-partitioned by week on start_time (Monday 00:00 Europe/Amsterdam).
+ * Hibernate creates jobs as a plain heap; converting it is a one-off migration, run in one
+ * transaction by starting once with {@code jobs.partitions.migrate=true}. Once partitioned,
+ * {@code jobs.partitions.weeks-ahead} future partitions are kept ready. Rows outside every
+ * partition land in jobs_default and are moved into proper partitions after each import and
+ * on the nightly run, so jobs_default stays empty in steady state.
+ * <p>
+ * The primary key becomes (job_id, start_time) as Postgres requires for partitioned tables;
+ * job_id alone stays unique through public.jobs_ids, which a row trigger keeps in step with jobs.
+ * CHECK constraints and foreign keys of the heap carry over.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // before ExcelDataLoader imports anything
+public class JobsPartitionManager implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JobsPartitionManager.class);
+    private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // Mirrors the @Index list on Job; created on the parent so every partition gets a local copy
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_jobs_driver_time ON public.jobs (driver_id, start_time)",
+            "CREATE INDEX IF NOT EXISTS idx_jobs_city_time ON public.jobs (city_id, start_time)",
+            "CREATE INDEX IF NOT EXISTS idx_jobs_city_pickup_h3_time ON public.jobs (city_id, pickup_h3, start_time)",
+            "CREATE INDEX IF NOT EXISTS idx_jobs_drop_h3 ON public.jobs (drop_h3)");
+
+    // A unique index on a partitioned table has to include start_time, so the job_id primary key
+    // lives in its own table. Row triggers on the parent are cloned onto every partition.
+    private static final List<String> JOB_IDS = List.of(
+            "CREATE TABLE IF NOT EXISTS public.jobs_ids (job_id varchar(36) PRIMARY KEY)",
+            "TRUNCATE public.jobs_ids",
+            "INSERT INTO public.jobs_ids (job_id) SELECT job_id FROM public.jobs",
+            """
+            CREATE OR REPLACE FUNCTION public.jobs_ids_trg()
+            RETURNS trigger LANGUAGE plpgsql AS $fn$
+            BEGIN
+              IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                DELETE FROM public.jobs_ids WHERE job_id = OLD.job_id;
+              END IF;
+              IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                INSERT INTO public.jobs_ids (job_id) VALUES (NEW.job_id);
+              END IF;
+              RETURN NULL;
+            END
+            $fn$""",
+            "DROP TRIGGER IF EXISTS jobs_ids_sync ON public.jobs",
+            """
+            CREATE TRIGGER jobs_ids_sync AFTER INSERT OR DELETE OR UPDATE OF job_id ON public.jobs
+              FOR EACH ROW EXECUTE FUNCTION public.jobs_ids_trg()""");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final boolean migrate;
+    private final int weeksAhead;
+
+    public JobsPartitionManager(JdbcTemplate jdbc,
+                                TransactionTemplate tx,
+                                @Value("${jobs.partitions.enabled:true}") boolean enabled,
+                                @Value("${jobs.partitions.migrate:false}") boolean migrate,
+                                @Value("${jobs.partitions.weeks-ahead:8}") int weeksAhead) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.enabled = enabled;
+        this.migrate = migrate;
+        this.weeksAhead = weeksAhead;
+    }
+
+    /** One partition as Postgres reports it. */
+    public record Partition(String name, String bounds, long estimatedRows) {}
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        if ("r".equals(relkind("jobs"))) {
+            if (!migrate) {
+                log.info("public.jobs is not partitioned; start once with jobs.partitions.migrate=true to convert it");
+                return;
+            }
+            partition();
+        }
+        if (!"p".equals(relkind("jobs"))) return;
+        installJobIds();
+        maintain();
+    }
+
+    @EventListener
+    public void onJobsImported(JobsImportedEvent e) {
+        if (enabled) maintain();
+    }
+
+    /**
+     * Nightly: move jobs_default rows into their weeks and create the coming weeks. Each week is
+     * its own short transaction; nothing here locks jobs against reads or writes.
+     */
+    @Scheduled(cron = "${jobs.partitions.cron:0 15 3 * * *}", zone = "Europe/Amsterdam")
+    public void maintain() {
+        if (!enabled || !"p".equals(relkind("jobs"))) return;
+        jdbc.queryForList("""
+                SELECT DISTINCT date_trunc('week', start_time AT TIME ZONE 'Europe/Amsterdam')::date
+                FROM public.jobs_default ORDER BY 1""", LocalDate.class)
+                .forEach(this::ensureWeek);
+        LocalDate week = weekStart(LocalDate.now(ZONE));
+        for (int i = 0; i <= weeksAhead; i++) ensureWeek(week.plusWeeks(i));
+    }
+
+    /** Converts the plain jobs heap into the partitioned layout, copying existing rows. */
+    void partition() {
+        tx.executeWithoutResult(s -> {
+            log.info("Converting public.jobs to weekly range partitions");
+            String cols = insertableColumns("jobs");
+            // Re-added by name once the rows are in, so they are validated in one pass
+            List<String> foreignKeys = jdbc.queryForList("""
+                    SELECT format('ALTER TABLE public.jobs ADD CONSTRAINT %I %s', conname, pg_get_constraintdef(oid))
+                    FROM pg_constraint WHERE conrelid = 'public.jobs'::regclass AND contype = 'f'""", String.class);
+
+            jdbc.execute("ALTER TABLE public.jobs RENAME TO jobs_heap");
+            // Indexes (the job_id primary key among them) cannot carry over; CHECKs and NOT NULLs do
+            jdbc.execute("""
+                    CREATE TABLE public.jobs (LIKE public.jobs_heap INCLUDING ALL EXCLUDING INDEXES)
+                      PARTITION BY RANGE (start_time)""");
+            jdbc.execute("CREATE TABLE public.jobs_default PARTITION OF public.jobs DEFAULT");
+
+            Map<String, Object> span = jdbc.queryForMap(
+                    "SELECT min(start_time) AS lo, max(start_time) AS hi FROM public.jobs_heap");
+            ensureWeeks((Timestamp) span.get("lo"), (Timestamp) span.get("hi"));
+
+            jdbc.execute("INSERT INTO public.jobs (" + cols + ") SELECT " + cols + " FROM public.jobs_heap");
+            jdbc.execute("DROP TABLE public.jobs_heap");
+
+            jdbc.execute("ALTER TABLE public.jobs ADD PRIMARY KEY (job_id, start_time)");
+            foreignKeys.forEach(jdbc::execute);
+            INDEXES.forEach(jdbc::execute);
+            JOB_IDS.forEach(jdbc::execute);
+        });
+    }
+
+    /** Partitions of public.jobs in bound order. */
+    public List<Partition> partitions() {
+        return jdbc.query("""
+                SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bounds, c.reltuples::bigint AS est
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                JOIN pg_namespace n ON n.oid = p.relnamespace
+                WHERE n.nspname = 'public' AND p.relname = 'jobs'
+                ORDER BY c.relname""",
+                (rs, i) -> new Partition(rs.getString(1), rs.getString(2), Math.max(0, rs.getLong(3))));
+    }
+
+    /**
+     * EXPLAIN of the city-day read for the given range, to check that only the partitions
+     * overlapping [from, to) are scanned.
+     */
+    public List<String> explainCityDay(int cityId, OffsetDateTime from, OffsetDateTime to) {
+        return jdbc.queryForList("""
+                EXPLAIN SELECT j.job_id FROM public.jobs j
+                WHERE j.city_id = ? AND j.start_time >= ? AND j.start_time < ?
+                ORDER BY j.start_time""", String.class, cityId, from, to);
+    }
+
+    // For tables partitioned before jobs_ids existed. Refuses (and says so) if job_ids repeat.
+    private void installJobIds() {
+        if (relkind("jobs_ids") != null) return;
+        try {
+            tx.executeWithoutResult(s -> JOB_IDS.forEach(jdbc::execute));
+            log.info("public.jobs_ids installed; job_id is unique again");
+        } catch (DataIntegrityViolationException e) {
+            log.error("public.jobs has repeated job_ids, so their uniqueness is not enforced; list them with "
+                    + "SELECT job_id FROM public.jobs GROUP BY job_id HAVING count(*) > 1");
+        }
+    }
+
+    private void ensureWeeks(Timestamp lo, Timestamp hi) {
+        if (lo == null || hi == null) return;
+        LocalDate last = weekStart(hi.toInstant().atZone(ZONE).toLocalDate());
+        for (LocalDate w = weekStart(lo.toInstant().atZone(ZONE).toLocalDate()); !w.isAfter(last); w = w.plusWeeks(1)) {
+            ensureWeek(w);
+        }
+    }
+
+    /*
+     * A week is built as a plain table and then attached: ATTACH takes SHARE UPDATE EXCLUSIVE on
+     * jobs, where CREATE TABLE ... PARTITION OF would lock it exclusively. Rows of that week
+     * waiting in jobs_default move over first, or the attach would fail; only jobs_default is
+     * locked exclusively, for its (small) validation scan.
+     */
+    private void ensureWeek(LocalDate monday) {
+        String name = "jobs_p" + monday.format(SUFFIX);
+        if (relkind(name) != null) return;
+        OffsetDateTime from = monday.atStartOfDay(ZONE).toOffsetDateTime();
+        OffsetDateTime to = monday.plusWeeks(1).atStartOfDay(ZONE).toOffsetDateTime();
+        String cols = insertableColumns("jobs");
+        tx.executeWithoutResult(s -> {
+            jdbc.execute("CREATE TABLE public." + name + " (LIKE public.jobs INCLUDING ALL EXCLUDING INDEXES)");
+            int moved = jdbc.update("WITH moved AS (DELETE FROM public.jobs_default"
+                    + " WHERE start_time >= ? AND start_time < ? RETURNING " + cols + ")"
+                    + " INSERT INTO public." + name + " (" + cols + ") SELECT " + cols + " FROM moved", from, to);
+            jdbc.execute("ALTER TABLE public.jobs ATTACH PARTITION public." + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            if (moved > 0) {
+                // The delete fired the jobs_ids trigger; the plain table had none to add them back
+                if (relkind("jobs_ids") != null) {
+                    jdbc.update("INSERT INTO public.jobs_ids (job_id) SELECT job_id FROM public." + name);
+                }
+                log.info("Moved {} jobs_default rows into {}", moved, name);
+            }
+        });
+    }
+
+    private String insertableColumns(String table) {
+        return String.join(", ", jdbc.queryForList("""
+                SELECT column_name FROM information_schema.columns
+                WHERE table_schema = 'public' AND table_name = ? AND is_generated = 'NEVER'
+                ORDER BY ordinal_position""", String.class, table));
+    }
+
+    // 'r' plain table, 'p' partitioned, null if missing
+    private String relkind(String table) {
+        List<String> kinds = jdbc.queryForList("""
+                SELECT c.relkind::text FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = 'public' AND c.relname = ?""", String.class, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private static LocalDate weekStart(LocalDate d) {
+        return d.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -1,46 +1,120 @@
 package com.junctionx.backend.repository;
 
+import com.junctionx.backend.config.ReplicaLagMonitor;
 import com.junctionx.backend.sim.dto.TripDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Repository
 public class JobsReadRepository {
 
     private final NamedParameterJdbcTemplate jdbc;
+    // Same DataSource with a fetch size, so Postgres serves rows from a server-side cursor
+    // (only inside a transaction; with autocommit on the driver still buffers everything)
+    private final NamedParameterJdbcTemplate cursorJdbc;
+    // Set only with a replica configured (ReadReplicaConfig): each read then runs in a read-only
+    // transaction so it is routed there (the primary for a while after an import, see
+    // ReplicaLagMonitor). Without one, reads stay plain autocommit queries.
+    private final TransactionTemplate replicaTx;
 
-    public JobsReadRepository(NamedParameterJdbcTemplate jdbc) {
+    /** No replica routing (e.g. backend-bench). */
+    public JobsReadRepository(NamedParameterJdbcTemplate jdbc, int fetchSize) {
+        this(jdbc, fetchSize, null, null);
+    }
+
+    @Autowired
+    public JobsReadRepository(NamedParameterJdbcTemplate jdbc,
+                              @Value("${jobs.read.fetch-size:1000}") int fetchSize,
+                              TransactionTemplate tx,
+                              ObjectProvider<ReplicaLagMonitor> replica) {
         this.jdbc = jdbc;
+        this.cursorJdbc = jdbc == null ? null : cursorTemplate(jdbc, fetchSize);
+        if (tx != null && replica != null && replica.getIfAvailable() != null) {
+            this.replicaTx = new TransactionTemplate(tx.getTransactionManager());
+            this.replicaTx.setReadOnly(true);
+        } else {
+            this.replicaTx = null;
+        }
+    }
+
+    private <T> T read(Supplier<T> query) {
+        return replicaTx == null ? query.get() : replicaTx.execute(st -> query.get());
+    }
+
+    private static NamedParameterJdbcTemplate cursorTemplate(NamedParameterJdbcTemplate jdbc, int fetchSize) {
+        JdbcTemplate t = new JdbcTemplate(jdbc.getJdbcTemplate().getDataSource());
+        t.setFetchSize(fetchSize);
+        return new NamedParameterJdbcTemplate(t);
+    }
+
+    // Column positions of every SELECT below; ROW reads by index
+    private static final int RIDE_ID = 1, DRIVER_ID = 2, CITY_ID = 3, PICKUP_H3 = 4, DROP_H3 = 5,
+            START_US = 6, END_US = 7, DURATION_MINS = 8, NET_EARNINGS = 9;
+
+    // city_id -> its String form, shared by every row of that city (ids are small; others are not cached)
+    private static final String[] CITY_ID_STRINGS = new String[1024];
+
+    static String cityIdString(int cityId) {
+        if (cityId < 0 || cityId >= CITY_ID_STRINGS.length) return String.valueOf(cityId);
+        String s = CITY_ID_STRINGS[cityId];
+        if (s == null) CITY_ID_STRINGS[cityId] = s = String.valueOf(cityId); // benign race: equal values
+        return s;
     }
 
-    private static final RowMapper<TripDTO> ROW = new RowMapper<>() {
+    // Timestamps arrive as epoch microseconds: the driver parses a long in place instead of
+    // building a string and a Calendar per column, and the value is rebuilt in UTC (as before)
+    private static OffsetDateTime utc(long epochMicros) {
+        long sec = Math.floorDiv(epochMicros, 1_000_000L);
+        int nanos = (int) Math.floorMod(epochMicros, 1_000_000L) * 1_000;
+        return LocalDateTime.ofEpochSecond(sec, nanos, ZoneOffset.UTC).atOffset(ZoneOffset.UTC);
+    }
+
+    // package-private for backend-bench (RowMapperBenchmark)
+    static final RowMapper<TripDTO> ROW = new RowMapper<>() {
         @Override public TripDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
-            String rideId = rs.getString("ride_id");
-            String driverId = rs.getString("driver_id");
+            String rideId = rs.getString(RIDE_ID);
+            String driverId = rs.getString(DRIVER_ID);
             // city_id is integer in DB — we expose it as String in code for uniformity
-            Integer cityIdInt = (Integer) rs.getObject("city_id");
-            String cityId = cityIdInt == null ? null : String.valueOf(cityIdInt);
+            int cityIdInt = rs.getInt(CITY_ID);
+            String cityId = rs.wasNull() ? null : cityIdString(cityIdInt);
 
-            String pickupHex = rs.getString("pickup_hex_id9");
-            String dropHex   = rs.getString("drop_hex_id9");
+            // generated bigint H3 columns; NULL -> 0 (no cell)
+            long pickupH3 = rs.getLong(PICKUP_H3);
+            long dropH3   = rs.getLong(DROP_H3);
 
-            OffsetDateTime startTs = rs.getObject("start_time", OffsetDateTime.class);
-            OffsetDateTime endTs   = rs.getObject("end_time", OffsetDateTime.class);
+            long startUs = rs.getLong(START_US);
+            OffsetDateTime startTs = rs.wasNull() ? null : utc(startUs);
+            long endUs = rs.getLong(END_US);
+            OffsetDateTime endTs = rs.wasNull() ? null : utc(endUs);
 
-            Integer durI = (Integer) rs.getObject("duration_mins");
-            Double durationMins = durI == null ? null : durI.doubleValue();
+            int durI = rs.getInt(DURATION_MINS);
+            Double durationMins = rs.wasNull() ? null : (double) durI;
 
-            Double fare = (Double) rs.getObject("net_earnings");
+            double fareD = rs.getDouble(NET_EARNINGS);
+            Double fare = rs.wasNull() ? null : fareD;
 
             return new TripDTO(
-                    rideId, driverId, cityId, pickupHex, dropHex,
+                    rideId, driverId, cityId, pickupH3, dropH3,
                     startTs, endTs, durationMins, fare
             );
         }
@@ -52,10 +126,10 @@ public class JobsReadRepository {
         j.job_id         AS ride_id,
         j.driver_id      AS driver_id,
         j.city_id        AS city_id,
-        j.pickup_hex_id9,
-        j.drop_hex_id9,
-        j.start_time,
-        j.end_time,
+        j.pickup_h3,
+        j.drop_h3,
+        (extract(epoch FROM j.start_time) * 1000000)::bigint AS start_us,
+        (extract(epoch FROM j.end_time) * 1000000)::bigint   AS end_us,
         j.duration_mins,
         j.net_earnings
       FROM public.jobs j
@@ -68,19 +142,18 @@ public class JobsReadRepository {
                 .addValue("driverId", driverId)
                 .addValue("dayStart", dayStart)
                 .addValue("dayEnd", dayEnd);
-        return jdbc.query(sql, params, ROW);
+        return read(() -> jdbc.query(sql, params, ROW));
     }
 
-    public List<TripDTO> findCityTripsForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
-        String sql = """
+    private static final String CITY_DAY_SQL = """
       SELECT
         j.job_id         AS ride_id,
         j.driver_id      AS driver_id,
         j.city_id        AS city_id,
-        j.pickup_hex_id9,
-        j.drop_hex_id9,
-        j.start_time,
-        j.end_time,
+        j.pickup_h3,
+        j.drop_h3,
+        (extract(epoch FROM j.start_time) * 1000000)::bigint AS start_us,
+        (extract(epoch FROM j.end_time) * 1000000)::bigint   AS end_us,
         j.duration_mins,
         j.net_earnings
       FROM public.jobs j
@@ -89,34 +162,116 @@ public class JobsReadRepository {
         AND j.start_time <  :dayEnd
       ORDER BY j.start_time ASC
     """;
-        var params = new MapSqlParameterSource()
+
+    public List<TripDTO> findCityTripsForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        return read(() -> jdbc.query(CITY_DAY_SQL, cityDayParams(cityId, dayStart, dayEnd), ROW));
+    }
+
+    /**
+     * Same rows as {@link #findCityTripsForDay}, fetched {@code jobs.read.fetch-size} at a time.
+     * Must run inside a (read-only) transaction for the cursor to stay server-side, and the
+     * stream must be closed (try-with-resources) to release the connection.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<TripDTO> streamCityTripsForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        return cursorJdbc.queryForStream(CITY_DAY_SQL, cityDayParams(cityId, dayStart, dayEnd), ROW);
+    }
+
+    /** Callback form of {@link #streamCityTripsForDay}; opens its own read-only transaction. */
+    @Transactional(readOnly = true)
+    public void forEachCityTripForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd,
+                                      Consumer<TripDTO> sink) {
+        cursorJdbc.query(CITY_DAY_SQL, cityDayParams(cityId, dayStart, dayEnd),
+                rs -> { sink.accept(ROW.mapRow(rs, rs.getRow())); });
+    }
+
+    private static MapSqlParameterSource cityDayParams(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        return new MapSqlParameterSource()
                 .addValue("cityId", cityId)
                 .addValue("dayStart", dayStart)
                 .addValue("dayEnd", dayEnd);
-        return jdbc.query(sql, params, ROW);
+    }
+
+    /** Position of a row in (start_time, job_id) order; pages continue strictly after it. */
+    public record TripKey(OffsetDateTime startTs, String rideId) {}
+
+    // Keyset page: the start_time range seeks the (driver_id|city_id, start_time) index from the
+    // last row seen, the OR only re-checks rows sharing that start_time, so page N costs page 1
+    private static final String PAGE_SQL = """
+      SELECT
+        j.job_id         AS ride_id,
+        j.driver_id      AS driver_id,
+        j.city_id        AS city_id,
+        j.pickup_h3,
+        j.drop_h3,
+        (extract(epoch FROM j.start_time) * 1000000)::bigint AS start_us,
+        (extract(epoch FROM j.end_time) * 1000000)::bigint   AS end_us,
+        j.duration_mins,
+        j.net_earnings
+      FROM public.jobs j
+      WHERE %s
+        AND j.start_time >= :fromTs
+        AND j.start_time <  :dayEnd
+        AND (j.start_time > :fromTs OR j.job_id > :afterId)
+      ORDER BY j.start_time ASC, j.job_id ASC
+      LIMIT :limit
+    """;
+
+    /** Up to {@code limit} of the driver's rows in [dayStart, dayEnd) after {@code after} (null = first page). */
+    public List<TripDTO> findDriverTripsPage(String driverId, OffsetDateTime dayStart, OffsetDateTime dayEnd,
+                                             TripKey after, int limit) {
+        var params = pageParams(dayStart, dayEnd, after, limit).addValue("driverId", driverId);
+        return read(() -> jdbc.query(PAGE_SQL.formatted("j.driver_id = :driverId"), params, ROW));
+    }
+
+    /**
+     * Up to {@code limit} of the city's rows in [dayStart, dayEnd) after {@code after} (null = first
+     * page), optionally only for {@code driverIds} (null = all drivers).
+     */
+    public List<TripDTO> findCityTripsPage(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd,
+                                           Collection<String> driverIds, TripKey after, int limit) {
+        var params = pageParams(dayStart, dayEnd, after, limit).addValue("cityId", cityId);
+        String where = "j.city_id = :cityId";
+        if (driverIds != null) {
+            where += " AND j.driver_id = ANY(:driverIds::varchar[])";
+            params.addValue("driverIds", driverIds.toArray(String[]::new));
+        }
+        String sql = PAGE_SQL.formatted(where);
+        return read(() -> jdbc.query(sql, params, ROW));
+    }
+
+    private static MapSqlParameterSource pageParams(OffsetDateTime dayStart, OffsetDateTime dayEnd,
+                                                    TripKey after, int limit) {
+        // First page: start at dayStart, and job_id > '' admits every row at exactly dayStart
+        boolean first = after == null || after.startTs().isBefore(dayStart);
+        return new MapSqlParameterSource()
+                .addValue("fromTs", first ? dayStart : after.startTs())
+                .addValue("afterId", first ? "" : after.rideId())
+                .addValue("dayEnd", dayEnd)
+                .addValue("limit", limit);
     }
 
     public List<TripDTO> findWindowedCandidates(Integer cityId,
                                                 OffsetDateTime fromTs,
                                                 OffsetDateTime toTs,
-                                                List<String> pickupHexes) {
-        // NamedParameterJdbcTemplate safely expands IN (:pickupHexes)
+                                                long[] pickupHexes) {
+        // One bigint[] bind instead of an IN list of varchar literals; hits idx_jobs_city_pickup_h3_time
         String sql = """
       SELECT
         j.job_id         AS ride_id,
         j.driver_id      AS driver_id,
         j.city_id        AS city_id,
-        j.pickup_hex_id9,
-        j.drop_hex_id9,
-        j.start_time,
-        j.end_time,
+        j.pickup_h3,
+        j.drop_h3,
+        (extract(epoch FROM j.start_time) * 1000000)::bigint AS start_us,
+        (extract(epoch FROM j.end_time) * 1000000)::bigint   AS end_us,
         j.duration_mins,
         j.net_earnings
       FROM public.jobs j
       WHERE j.city_id = :cityId
         AND j.start_time >= :fromTs
         AND j.start_time <= :toTs
-        AND j.pickup_hex_id9 IN (:pickupHexes)
+        AND j.pickup_h3 = ANY(:pickupHexes::bigint[])
       ORDER BY j.start_time ASC
     """;
         var params = new MapSqlParameterSource()
@@ -124,6 +279,6 @@ public class JobsReadRepository {
                 .addValue("fromTs", fromTs)
                 .addValue("toTs", toTs)
                 .addValue("pickupHexes", pickupHexes);
-        return jdbc.query(sql, params, ROW);
+        return read(() -> jdbc.query(sql, params, ROW));
     }
 }
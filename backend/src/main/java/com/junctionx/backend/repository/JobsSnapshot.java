@@ -0,0 +1,448 @@
+package com.junctionx.backend.repository;
+
+import com.junctionx.backend.sim.dto.TripDTO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, memory-mapped columnar copy of public.jobs. Rows are grouped by city and sorted by
+ * start time inside each city, so a city-day is two binary searches and a contiguous scan over
+ * primitive columns; strings and timestamps are only decoded for rows that are returned.
+ *
+ * <p>File layout (little-endian, sections 8-byte aligned, offsets in the header):
+ * <pre>
+ *   header      magic, version, rows, cities, drivers, base epoch second, created-at, offsets
+ *   cities      (cityId, firstRow, rowCount, 0) per city, by cityId; NO_INT = null city
+ *   start       int[rows]     seconds since base
+ *   end         int[rows]     seconds since base, NO_INT = null
+ *   pickup      long[rows]    H3 cell, 0 = none
+ *   drop        long[rows]    H3 cell, 0 = none
+ *   duration    int[rows]     minutes, NO_INT = null
+ *   fare        double[rows]  net earnings, NaN = null
+ *   driver      int[rows]     index into the driver dictionary
+ *   jobIdOffs   int[rows + 1], then jobIdBytes (UTF-8)
+ *   driverOffs  int[drivers + 1], then driverBytes (UTF-8, sorted by unsigned bytes)
+ *   byDriver    int[drivers + 1] into driverRows int[rows]: each driver's rows by start
+ * </pre>
+ * Times are whole seconds; sub-second parts are dropped (floored) on export. Timestamps come back in UTC,
+ * as the JDBC driver returns them. A file is one mapping, so it is limited to 2 GB.
+ */
+public final class JobsSnapshot {
+
+    static final long MAGIC = 0x3150414E53424F4AL; // "JOBSNAP1" read as a little-endian long
+    static final int VERSION = 1;
+    static final int NO_INT = Integer.MIN_VALUE;
+
+    private static final int H_MAGIC = 0, H_VERSION = 1, H_ROWS = 2, H_CITIES = 3, H_DRIVERS = 4,
+            H_BASE = 5, H_CREATED = 6, H_OFFSETS = 7;
+    private static final int CITIES = 0, START = 1, END = 2, PICKUP = 3, DROP = 4, DURATION = 5, FARE = 6,
+            DRIVER = 7, JOB_ID_OFFS = 8, JOB_ID_BYTES = 9, DRIVER_OFFS = 10, DRIVER_BYTES = 11,
+            BY_DRIVER = 12, DRIVER_ROWS = 13, SECTIONS = 14;
+    private static final int HEADER_BYTES = (H_OFFSETS + SECTIONS) * Long.BYTES;
+
+    private final Path path;
+    private final int rows;
+    private final int drivers;
+    private final long base;
+    private final Instant createdAt;
+    private final long maxStart;
+    private final int[] cityIds;        // sorted
+    private final int[] cityFirst;
+    private final int[] cityCount;
+    private final IntBuffer start, end, duration, driver, jobIdOffs, driverOffs, byDriver, driverRows;
+    private final LongBuffer pickup, drop;
+    private final DoubleBuffer fare;
+    private final ByteBuffer jobIdBytes, driverBytes;
+
+    private JobsSnapshot(Path path, ByteBuffer b) {
+        this.path = path;
+        if (b.capacity() < HEADER_BYTES || b.getLong(H_MAGIC * 8) != MAGIC || b.getLong(H_VERSION * 8) != VERSION) {
+            throw new IllegalStateException(path + " is not a version " + VERSION + " jobs snapshot");
+        }
+        rows = (int) b.getLong(H_ROWS * 8);
+        int cities = (int) b.getLong(H_CITIES * 8);
+        drivers = (int) b.getLong(H_DRIVERS * 8);
+        base = b.getLong(H_BASE * 8);
+        createdAt = Instant.ofEpochMilli(b.getLong(H_CREATED * 8));
+        int[] off = new int[SECTIONS];
+        for (int i = 0; i < SECTIONS; i++) off[i] = (int) b.getLong((H_OFFSETS + i) * 8);
+
+        IntBuffer dir = ints(b, off[CITIES], cities * 4);
+        cityIds = new int[cities];
+        cityFirst = new int[cities];
+        cityCount = new int[cities];
+        for (int c = 0; c < cities; c++) {
+            cityIds[c] = dir.get(c * 4);
+            cityFirst[c] = dir.get(c * 4 + 1);
+            cityCount[c] = dir.get(c * 4 + 2);
+        }
+        start       = ints(b, off[START], rows);
+        end         = ints(b, off[END], rows);
+        pickup      = longs(b, off[PICKUP], rows);
+        drop        = longs(b, off[DROP], rows);
+        duration    = ints(b, off[DURATION], rows);
+        fare        = b.slice(off[FARE], rows * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        driver      = ints(b, off[DRIVER], rows);
+        jobIdOffs   = ints(b, off[JOB_ID_OFFS], rows + 1);
+        jobIdBytes  = b.slice(off[JOB_ID_BYTES], jobIdOffs.get(rows));
+        driverOffs  = ints(b, off[DRIVER_OFFS], drivers + 1);
+        driverBytes = b.slice(off[DRIVER_BYTES], driverOffs.get(drivers));
+        byDriver    = ints(b, off[BY_DRIVER], drivers + 1);
+        driverRows  = ints(b, off[DRIVER_ROWS], rows);
+
+        long max = Long.MIN_VALUE;
+        for (int c = 0; c < cities; c++) {
+            if (cityCount[c] > 0) max = Math.max(max, base + start.get(cityFirst[c] + cityCount[c] - 1));
+        }
+        maxStart = max;
+    }
+
+    /** Maps the file read-only; the mapping outlives the channel and is released by GC. */
+    public static JobsSnapshot open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return new JobsSnapshot(path, buf.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public Path path()         { return path; }
+    public int rows()          { return rows; }
+    public int cities()        { return cityIds.length; }
+    public int drivers()       { return drivers; }
+    public Instant createdAt() { return createdAt; }
+
+    /** Latest start time in epoch seconds, Long.MIN_VALUE when there are no rows. */
+    public long maxStartEpochSecond() { return maxStart; }
+
+    // ---- queries (same rows and order as the JobsReadRepository SQL) ----
+
+    /** City rows with dayStart <= start < dayEnd, by start. */
+    public List<TripDTO> cityTrips(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        List<TripDTO> out = new ArrayList<>();
+        forEachCityTrip(cityId, dayStart, dayEnd, out::add);
+        return out;
+    }
+
+    public void forEachCityTrip(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd, Consumer<TripDTO> sink) {
+        int c = city(cityId);
+        if (c < 0) return;
+        int hi = cityFirst[c] + cityCount[c];
+        int a = lowerBound(cityFirst[c], hi, ceil(dayStart));
+        int z = lowerBound(a, hi, ceil(dayEnd));
+        for (int r = a; r < z; r++) sink.accept(trip(r, c));
+    }
+
+    /** City rows with fromTs <= start <= toTs whose pickup cell is one of pickupHexes, by start. */
+    public List<TripDTO> windowedCandidates(Integer cityId, OffsetDateTime fromTs, OffsetDateTime toTs, long[] pickupHexes) {
+        int c = city(cityId);
+        if (c < 0 || pickupHexes.length == 0) return List.of();
+        long[] hexes = pickupHexes.clone();
+        Arrays.sort(hexes);
+
+        int hi = cityFirst[c] + cityCount[c];
+        int a = lowerBound(cityFirst[c], hi, ceil(fromTs));
+        int z = lowerBound(a, hi, toTs.toEpochSecond() - base + 1);
+        List<TripDTO> out = new ArrayList<>();
+        for (int r = a; r < z; r++) {
+            if (Arrays.binarySearch(hexes, pickup.get(r)) >= 0) out.add(trip(r, c));
+        }
+        return out;
+    }
+
+    /** The driver's rows with dayStart <= start < dayEnd, by start. */
+    public List<TripDTO> driverTrips(String driverId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        int d = driverIndex(driverId);
+        if (d < 0) return List.of();
+        long from = ceil(dayStart), to = ceil(dayEnd);
+        List<TripDTO> out = new ArrayList<>();
+        for (int i = byDriver.get(d), n = byDriver.get(d + 1); i < n; i++) {
+            int r = driverRows.get(i);
+            int s = start.get(r);
+            if (s >= to) break;
+            if (s >= from) out.add(trip(r, cityOfRow(r)));
+        }
+        return out;
+    }
+
+    // ---- decoding ----
+
+    private TripDTO trip(int r, int c) {
+        int e = end.get(r), dur = duration.get(r);
+        double f = fare.get(r);
+        return new TripDTO(
+                string(jobIdBytes, jobIdOffs, r),
+                string(driverBytes, driverOffs, driver.get(r)),
+                cityIds[c] == NO_INT ? null : String.valueOf(cityIds[c]),
+                pickup.get(r),
+                drop.get(r),
+                time(start.get(r)),
+                e == NO_INT ? null : time(e),
+                dur == NO_INT ? null : (double) dur,
+                Double.isNaN(f) ? null : f);
+    }
+
+    private OffsetDateTime time(int rel) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(base + rel), ZoneOffset.UTC);
+    }
+
+    // Starts are whole seconds, so start >= t and start < t both hold iff they hold for ceil(t)
+    private long ceil(OffsetDateTime t) {
+        return t.toEpochSecond() - base + (t.getNano() > 0 ? 1 : 0);
+    }
+
+    // First row in [lo, hi) with start >= key
+    private int lowerBound(int lo, int hi, long key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start.get(mid) < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int city(Integer cityId) {
+        return cityId == null ? -1 : Arrays.binarySearch(cityIds, cityId);
+    }
+
+    // Directory entry holding the row: the last city whose first row is <= row
+    private int cityOfRow(int row) {
+        int lo = 0, hi = cityFirst.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (cityFirst[mid] <= row) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private int driverIndex(String driverId) {
+        if (driverId == null) return -1;
+        byte[] key = driverId.getBytes(StandardCharsets.UTF_8);
+        int lo = 0, hi = drivers - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int from = driverOffs.get(mid), to = driverOffs.get(mid + 1);
+            int cmp = compareUnsigned(driverBytes, from, to, key);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private static int compareUnsigned(ByteBuffer bytes, int from, int to, byte[] key) {
+        int n = Math.min(to - from, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Integer.compare(bytes.get(from + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(to - from, key.length);
+    }
+
+    private static String string(ByteBuffer bytes, IntBuffer offs, int i) {
+        int from = offs.get(i);
+        byte[] b = new byte[offs.get(i + 1) - from];
+        bytes.get(from, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static IntBuffer ints(ByteBuffer b, int off, int n) {
+        return b.slice(off, n * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static LongBuffer longs(ByteBuffer b, int off, int n) {
+        return b.slice(off, n * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    /**
+     * Collects rows in (city, start) order and writes them in the layout above. Holds everything
+     * in primitive arrays until {@link #write}; a job id and a driver id are the only per-row objects.
+     */
+    static final class Writer {
+
+        private int rows;
+        private long[] startSec = new long[1024];
+        private long[] endSec = new long[1024];      // Long.MIN_VALUE = null
+        private long[] pickupH3 = new long[1024];
+        private long[] dropH3 = new long[1024];
+        private int[] durationMins = new int[1024];
+        private double[] fares = new double[1024];
+        private int[] driverOf = new int[1024];
+        private byte[][] jobIds = new byte[1024][];
+        private final Map<String, Integer> driverIds = new HashMap<>();
+        private final List<int[]> cities = new ArrayList<>(); // {cityId, firstRow, count}
+
+        /** Rows must arrive ordered by city (nulls first) and then start time. */
+        void add(String jobId, String driverId, Integer cityId, long pickup, long drop,
+                 long startEpochSec, Long endEpochSec, Integer durationMins, Double fare) {
+            int city = cityId == null ? NO_INT : cityId;
+            int[] last = cities.isEmpty() ? null : cities.get(cities.size() - 1);
+            if (last == null || last[0] != city) {
+                if (last != null && last[0] > city) {
+                    throw new IllegalArgumentException("rows not ordered by city at " + jobId);
+                }
+                last = new int[]{city, rows, 0};
+                cities.add(last);
+            } else if (startSec[rows - 1] > startEpochSec) {
+                throw new IllegalArgumentException("rows not ordered by start_time at " + jobId);
+            }
+            last[2]++;
+
+            if (rows == startSec.length) grow();
+            startSec[rows] = startEpochSec;
+            endSec[rows] = endEpochSec == null ? Long.MIN_VALUE : endEpochSec;
+            pickupH3[rows] = pickup;
+            dropH3[rows] = drop;
+            this.durationMins[rows] = durationMins == null ? NO_INT : durationMins;
+            fares[rows] = fare == null ? Double.NaN : fare;
+            jobIds[rows] = jobId.getBytes(StandardCharsets.UTF_8);
+            driverOf[rows] = driverIds.computeIfAbsent(driverId == null ? "" : driverId, k -> driverIds.size());
+            rows++;
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        /** Writes the snapshot to {@code path}, replacing it. */
+        void write(Path path) throws IOException {
+            long base = Long.MAX_VALUE;
+            for (int r = 0; r < rows; r++) base = Math.min(base, startSec[r]);
+            if (rows == 0) base = 0;
+
+            // Driver dictionary in unsigned-byte order; remap[insertion index] = sorted index
+            byte[][] names = new byte[driverIds.size()][];
+            driverIds.forEach((id, i) -> names[i] = id.getBytes(StandardCharsets.UTF_8));
+            Integer[] order = new Integer[names.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (x, y) -> Arrays.compareUnsigned(names[x], names[y]));
+            int[] remap = new int[names.length];
+            for (int i = 0; i < order.length; i++) remap[order[i]] = i;
+            int drivers = names.length;
+
+            long jobIdBytes = 0, driverBytes = 0;
+            for (int r = 0; r < rows; r++) jobIdBytes += jobIds[r].length;
+            for (byte[] n : names) driverBytes += n.length;
+
+            long[] off = new long[SECTIONS];
+            long at = HEADER_BYTES;
+            long[] sizes = {
+                    (long) cities.size() * 4 * Integer.BYTES,
+                    (long) rows * Integer.BYTES, (long) rows * Integer.BYTES,
+                    (long) rows * Long.BYTES, (long) rows * Long.BYTES,
+                    (long) rows * Integer.BYTES, (long) rows * Double.BYTES, (long) rows * Integer.BYTES,
+                    (rows + 1L) * Integer.BYTES, jobIdBytes,
+                    (drivers + 1L) * Integer.BYTES, driverBytes,
+                    (drivers + 1L) * Integer.BYTES, (long) rows * Integer.BYTES};
+            for (int s = 0; s < SECTIONS; s++) {
+                off[s] = at;
+                at = align(at + sizes[s]);
+            }
+            if (at > Integer.MAX_VALUE) {
+                throw new IllegalStateException("jobs snapshot would be " + at + " bytes; the limit is 2 GB");
+            }
+
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, at);
+                ByteBuffer b = out.order(ByteOrder.LITTLE_ENDIAN);
+                b.putLong(H_MAGIC * 8, MAGIC).putLong(H_VERSION * 8, VERSION)
+                        .putLong(H_ROWS * 8, rows).putLong(H_CITIES * 8, cities.size())
+                        .putLong(H_DRIVERS * 8, drivers).putLong(H_BASE * 8, base)
+                        .putLong(H_CREATED * 8, System.currentTimeMillis());
+                for (int s = 0; s < SECTIONS; s++) b.putLong((H_OFFSETS + s) * 8, off[s]);
+
+                IntBuffer dir = ints(b, (int) off[CITIES], cities.size() * 4);
+                for (int[] c : cities) dir.put(c).put(0);
+
+                IntBuffer st = ints(b, (int) off[START], rows), en = ints(b, (int) off[END], rows);
+                IntBuffer du = ints(b, (int) off[DURATION], rows), dr = ints(b, (int) off[DRIVER], rows);
+                LongBuffer pu = longs(b, (int) off[PICKUP], rows), dp = longs(b, (int) off[DROP], rows);
+                DoubleBuffer fa = b.slice((int) off[FARE], rows * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                for (int r = 0; r < rows; r++) {
+                    st.put(seconds(startSec[r] - base));
+                    en.put(endSec[r] == Long.MIN_VALUE ? NO_INT : seconds(endSec[r] - base));
+                    du.put(durationMins[r]);
+                    dr.put(remap[driverOf[r]]);
+                    pu.put(pickupH3[r]);
+                    dp.put(dropH3[r]);
+                    fa.put(fares[r]);
+                }
+
+                putStrings(ints(b, (int) off[JOB_ID_OFFS], rows + 1), b.slice((int) off[JOB_ID_BYTES], (int) jobIdBytes),
+                        jobIds, rows, null);
+                putStrings(ints(b, (int) off[DRIVER_OFFS], drivers + 1), b.slice((int) off[DRIVER_BYTES], (int) driverBytes),
+                        names, drivers, order);
+
+                // Rows per driver: counting sort by driver keeps (city, start) order, then order by start
+                int[] first = new int[drivers + 1];
+                for (int r = 0; r < rows; r++) first[remap[driverOf[r]] + 1]++;
+                for (int d = 0; d < drivers; d++) first[d + 1] += first[d];
+                long[] keyed = new long[rows]; // start << 32 | row, sortable as one long
+                int[] fill = Arrays.copyOf(first, drivers);
+                for (int r = 0; r < rows; r++) {
+                    keyed[fill[remap[driverOf[r]]]++] = (startSec[r] - base) << 32 | r;
+                }
+                IntBuffer bd = ints(b, (int) off[BY_DRIVER], drivers + 1);
+                IntBuffer rowsOut = ints(b, (int) off[DRIVER_ROWS], rows);
+                bd.put(first);
+                for (int d = 0; d < drivers; d++) {
+                    Arrays.sort(keyed, first[d], first[d + 1]);
+                    for (int i = first[d]; i < first[d + 1]; i++) rowsOut.put((int) keyed[i]);
+                }
+                out.force();
+            }
+        }
+
+        private static void putStrings(IntBuffer offs, ByteBuffer bytes, byte[][] values, int n, Integer[] order) {
+            int pos = 0;
+            for (int i = 0; i < n; i++) {
+                byte[] v = values[order == null ? i : order[i]];
+                offs.put(pos);
+                bytes.put(pos, v);
+                pos += v.length;
+            }
+            offs.put(pos);
+        }
+
+        private static int seconds(long rel) {
+            if (rel <= NO_INT || rel > Integer.MAX_VALUE) {
+                throw new IllegalStateException("job times span more than 68 years from " + rel);
+            }
+            return (int) rel;
+        }
+
+        private void grow() {
+            int n = startSec.length * 2;
+            startSec = Arrays.copyOf(startSec, n);
+            endSec = Arrays.copyOf(endSec, n);
+            pickupH3 = Arrays.copyOf(pickupH3, n);
+            dropH3 = Arrays.copyOf(dropH3, n);
+            durationMins = Arrays.copyOf(durationMins, n);
+            fares = Arrays.copyOf(fares, n);
+            driverOf = Arrays.copyOf(driverOf, n);
+            jobIds = Arrays.copyOf(jobIds, n);
+        }
+    }
+
+    private static long align(long off) {
+        return (off + 7) & ~7L;
+    }
+}
@@ -0,0 +1,231 @@
+package com.junctionx.backend.repository;
+
+import com.junctionx.backend.config.ReplicaLagMonitor;
+import com.junctionx.backend.model.JobsImportedEvent;
+import com.junctionx.backend.model.JobsSnapshotRefreshedEvent;
+import com.junctionx.backend.sim.dto.TripDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Serves the jobs reads from a {@link JobsSnapshot} file instead of Postgres. The snapshot is
+ * exported on startup when missing and again after every import in this process. Imports run
+ * elsewhere are caught by a periodic check (jobs.snapshot.check-ms) of the table's row count and
+ * latest start time; an in-place update that changes neither is only picked up by the next
+ * export. Until a snapshot is loaded, or if export fails, every call falls through to the SQL.
+ * Each swap publishes a {@link JobsSnapshotRefreshedEvent}, so caches fed by these reads drop
+ * what they built from the previous snapshot.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "jobs.snapshot.enabled", havingValue = "true")
+public class SnapshotJobsReadRepository extends JobsReadRepository implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotJobsReadRepository.class);
+
+    private static final String EXPORT_SQL = """
+      SELECT j.job_id, j.driver_id, j.city_id, j.pickup_h3, j.drop_h3,
+             floor(extract(epoch FROM j.start_time))::bigint AS start_sec,
+             floor(extract(epoch FROM j.end_time))::bigint   AS end_sec,
+             j.duration_mins, j.net_earnings
+      FROM public.jobs j
+      WHERE j.start_time IS NOT NULL
+      ORDER BY j.city_id NULLS FIRST, j.start_time, j.job_id
+    """;
+
+    // What the snapshot should hold: its row count and latest start (same rounding as EXPORT_SQL)
+    private static final String SOURCE_SQL = """
+      SELECT count(*), floor(extract(epoch FROM max(j.start_time)))::bigint
+      FROM public.jobs j
+      WHERE j.start_time IS NOT NULL
+    """;
+
+    /** What is loaded; {@code path} is the configured file. */
+    public record Status(String path, boolean loaded, int rows, int cities, int drivers, Instant createdAt) {}
+
+    private final JdbcTemplate exportJdbc;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final Path path;
+    private final ApplicationEventPublisher events;
+    private volatile JobsSnapshot snapshot;
+
+    public SnapshotJobsReadRepository(NamedParameterJdbcTemplate jdbc,
+                                      @Value("${jobs.read.fetch-size:1000}") int fetchSize,
+                                      TransactionTemplate tx,
+                                      ObjectProvider<ReplicaLagMonitor> replica,
+                                      @Value("${jobs.snapshot.path:data/jobs.snap}") String path,
+                                      ApplicationEventPublisher events) {
+        super(jdbc, fetchSize, tx, replica);
+        this.exportJdbc = new JdbcTemplate(jdbc.getJdbcTemplate().getDataSource());
+        this.exportJdbc.setFetchSize(fetchSize);
+        this.tx = tx;
+        this.readOnlyTx = new TransactionTemplate(tx.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.path = Path.of(path);
+        this.events = events;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (Files.isRegularFile(path)) {
+            try {
+                snapshot = JobsSnapshot.open(path);
+                log.info("Jobs snapshot {}: {} rows, {} cities", path, snapshot.rows(), snapshot.cities());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Jobs snapshot {} unreadable, exporting a new one: {}", path, e.toString());
+            }
+        }
+        refreshIfStale(); // the file may predate imports made while this process was down
+    }
+
+    @EventListener
+    public void onJobsImported(JobsImportedEvent e) {
+        refresh();
+    }
+
+    /** Re-exports when public.jobs no longer matches the snapshot (or none is loaded). */
+    @Scheduled(fixedDelayString = "${jobs.snapshot.check-ms:300000}",
+               initialDelayString = "${jobs.snapshot.check-ms:300000}")
+    public void refreshIfStale() {
+        JobsSnapshot s = snapshot;
+        if (s != null) {
+            try {
+                if (!stale(s)) return;
+                log.info("Jobs snapshot {} is out of date with public.jobs, re-exporting", path);
+            } catch (RuntimeException e) {
+                log.warn("Jobs snapshot check failed, keeping {}: {}", path, e.toString());
+                return;
+            }
+        }
+        refresh();
+    }
+
+    // Plain autocommit query, so it runs on the primary even with a replica configured
+    private boolean stale(JobsSnapshot s) {
+        return Boolean.TRUE.equals(exportJdbc.query(SOURCE_SQL, rs -> {
+            rs.next();
+            long rows = rs.getLong(1);
+            Long maxStart = rs.getObject(2, Long.class);
+            return rows != s.rows()
+                    || (maxStart == null ? s.rows() > 0 : maxStart != s.maxStartEpochSecond());
+        }));
+    }
+
+    /** Re-exports public.jobs and swaps the new file in; keeps the current snapshot on failure. */
+    public Status refresh() {
+        JobsSnapshot s;
+        try {
+            s = export();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Jobs snapshot export failed, serving {}: {}",
+                    snapshot == null ? "from Postgres" : "the previous snapshot", e.toString());
+            return status();
+        }
+        snapshot = s;
+        events.publishEvent(new JobsSnapshotRefreshedEvent(s.rows()));
+        return status();
+    }
+
+    public Status status() {
+        JobsSnapshot s = snapshot;
+        return s == null
+                ? new Status(path.toString(), false, 0, 0, 0, null)
+                : new Status(path.toString(), true, s.rows(), s.cities(), s.drivers(), s.createdAt());
+    }
+
+    private JobsSnapshot export() throws IOException {
+        long t0 = System.nanoTime();
+        JobsSnapshot.Writer w = new JobsSnapshot.Writer();
+        // In a transaction so the fetch size gives a server-side cursor instead of one big buffer;
+        // not read-only, so a replica never serves an export that follows an import
+        tx.executeWithoutResult(st -> exportJdbc.query(EXPORT_SQL, rs -> {
+            w.add(rs.getString(1), rs.getString(2), rs.getObject(3, Integer.class),
+                    rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getObject(7, Long.class),
+                    rs.getObject(8, Integer.class), rs.getObject(9, Double.class));
+        }));
+
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            w.write(tmp);
+            // Readers keep their mapping of the old file; the rename only affects the next open
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        JobsSnapshot s = JobsSnapshot.open(path);
+        log.info("Jobs snapshot {}: exported {} rows in {} ms, {} bytes", path, s.rows(),
+                (System.nanoTime() - t0) / 1_000_000, Files.size(path));
+        return s;
+    }
+
+    // ---- reads: snapshot when loaded, SQL otherwise ----
+
+    @Override
+    public List<TripDTO> findDriverTripsForDay(String driverId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        JobsSnapshot s = snapshot;
+        return s != null ? s.driverTrips(driverId, dayStart, dayEnd)
+                : super.findDriverTripsForDay(driverId, dayStart, dayEnd);
+    }
+
+    @Override
+    public List<TripDTO> findCityTripsForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        JobsSnapshot s = snapshot;
+        return s != null ? s.cityTrips(cityId, dayStart, dayEnd)
+                : super.findCityTripsForDay(cityId, dayStart, dayEnd);
+    }
+
+    // Same contract as super, so callers cannot come to rely on the snapshot not needing a transaction
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<TripDTO> streamCityTripsForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd) {
+        JobsSnapshot s = snapshot;
+        return s != null ? s.cityTrips(cityId, dayStart, dayEnd).stream() : super.streamCityTripsForDay(cityId, dayStart, dayEnd);
+    }
+
+    // No transaction for the snapshot; super's @Transactional does not apply to the super call,
+    // so the SQL fallback opens the cursor's transaction itself
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void forEachCityTripForDay(Integer cityId, OffsetDateTime dayStart, OffsetDateTime dayEnd,
+                                      Consumer<TripDTO> sink) {
+        JobsSnapshot s = snapshot;
+        if (s != null) s.forEachCityTrip(cityId, dayStart, dayEnd, sink);
+        else readOnlyTx.executeWithoutResult(st -> super.forEachCityTripForDay(cityId, dayStart, dayEnd, sink));
+    }
+
+    @Override
+    public List<TripDTO> findWindowedCandidates(Integer cityId, OffsetDateTime fromTs, OffsetDateTime toTs,
+                                                long[] pickupHexes) {
+        JobsSnapshot s = snapshot;
+        return s != null ? s.windowedCandidates(cityId, fromTs, toTs, pickupHexes)
+                : super.findWindowedCandidates(cityId, fromTs, toTs, pickupHexes);
+    }
+}
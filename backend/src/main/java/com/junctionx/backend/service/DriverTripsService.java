@@ -11,6 +11,7 @@ public interface DriverTripsService {
     GeoJson.FeatureCollection getCounterfactualTrips(String driverId, LocalDate date);
 
     // Earner endpoints used by DriverController (date as String)
-    GeoJson.FeatureCollection actualTrips(String earnerId, String date, Integer page, Integer size);
+    // Actual trips are keyset-paged: cursor is the previous page's nextCursor (null = first page)
+    GeoJson.FeatureCollection actualTrips(String earnerId, String date, String cursor, Integer size);
     GeoJson.FeatureCollection counterfactualTrips(String earnerId, String date, Integer page, Integer size);
 }
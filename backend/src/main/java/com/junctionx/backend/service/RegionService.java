@@ -4,7 +4,8 @@ import com.junctionx.backend.dto.GeoJson.FeatureCollection;
 
 // Aided by LLM
 public interface RegionService {
-    FeatureCollection actualTrips(int cityId, String date, Integer page, Integer size, String earnerIdsCsv);
+    // cursor: the previous page's nextCursor (null = first page)
+    FeatureCollection actualTrips(int cityId, String date, String cursor, Integer size, String earnerIdsCsv);
     FeatureCollection counterfactualTrips(int cityId, String date, Integer page, Integer size, String earnerIdsCsv);
     FeatureCollection heatmap(int cityId, String date);
 }
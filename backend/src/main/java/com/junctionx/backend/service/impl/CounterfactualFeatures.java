@@ -0,0 +1,69 @@
+package com.junctionx.backend.service.impl;
+
+import com.junctionx.backend.dto.GeoJson;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.dto.TimelineEvent;
+import com.junctionx.backend.sim.util.H3Util;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/** Turns simulated timelines into the LineString features the map layers draw. */
+final class CounterfactualFeatures {
+
+    private CounterfactualFeatures() {}
+
+    /** One feature per simulated trip; {@code earnerIds} (nullable) restricts which drivers are emitted. */
+    static GeoJson.FeatureCollection of(Map<String, SimulationResult> results,
+                                        Set<String> earnerIds,
+                                        String date,
+                                        H3Util h3) {
+        List<GeoJson.Feature> features = new ArrayList<>();
+        for (var e : results.entrySet()) {
+            if (earnerIds != null && !earnerIds.contains(e.getKey())) continue;
+            for (TimelineEvent ev : e.getValue().timeline()) {
+                if (!"trip".equals(ev.type())) continue;
+                List<Double> from = h3.lonLat(ev.fromH3());
+                List<Double> to   = h3.lonLat(ev.toH3());
+                if (from == null || to == null) continue;
+
+                Map<String, Object> geometry = new LinkedHashMap<>();
+                geometry.put("type", "LineString");
+                geometry.put("coordinates", List.of(from, to));
+
+                Map<String, Object> props = new LinkedHashMap<>();
+                props.put("tripId", ev.rideId());
+                props.put("earnerId", e.getKey());
+                props.put("date", date);
+                props.put("start", ev.start().toString());
+                props.put("end", ev.end() == null ? null : ev.end().toString());
+                props.put("pickupHex", ev.fromHex());
+                props.put("dropHex", ev.toHex());
+                props.put("netEur", ev.earnings());
+
+                features.add(new GeoJson.Feature(geometry, props));
+            }
+        }
+        return new GeoJson.FeatureCollection(features);
+    }
+
+    /** Features [page * size, (page + 1) * size) of {@code all}; page is 0-based, null means 0. */
+    static GeoJson.FeatureCollection page(GeoJson.FeatureCollection all, Integer page, int size) {
+        int p = page == null ? 0 : page;
+        if (p < 0) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0");
+        List<GeoJson.Feature> features = all.getFeatures();
+        int from = (int) Math.min((long) p * size, features.size());
+        return new GeoJson.FeatureCollection(features.subList(from, Math.min(features.size(), from + size)));
+    }
+
+    /** Parses a comma-separated id filter; null/blank means "everyone". */
+    static Set<String> parseIds(String csv) {
+        if (csv == null || csv.isBlank()) return null;
+        Set<String> ids = new HashSet<>();
+        for (String s : csv.split(",")) {
+            if (!s.isBlank()) ids.add(s.trim());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,66 @@
+package com.junctionx.backend.service.impl;
+
+import com.junctionx.backend.dto.GeoJson;
+import com.junctionx.backend.repository.JobsReadRepository;
+import com.junctionx.backend.service.DriverTripsService;
+import com.junctionx.backend.sim.dto.TripDTO;
+import com.junctionx.backend.sim.util.H3Util;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Driver trip endpoints: actual trips are keyset pages of public.jobs.
+ * The LocalDate and counterfactual variants still come from the stub.
+ */
+@Primary
+@Service
+public class JobsDriverTripsService implements DriverTripsService {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
+
+    private final JobsReadRepository jobs;
+    private final StubDriverTripsService stub;
+    private final H3Util h3;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public JobsDriverTripsService(JobsReadRepository jobs, StubDriverTripsService stub, H3Util h3,
+                                  @Value("${jobs.page.default-size:200}") int defaultPageSize,
+                                  @Value("${jobs.page.max-size:1000}") int maxPageSize) {
+        this.jobs = jobs;
+        this.stub = stub;
+        this.h3 = h3;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public GeoJson.FeatureCollection getTrips(String driverId, LocalDate date) {
+        return stub.getTrips(driverId, date);
+    }
+
+    @Override
+    public GeoJson.FeatureCollection getCounterfactualTrips(String driverId, LocalDate date) {
+        return stub.getCounterfactualTrips(driverId, date);
+    }
+
+    @Override
+    public GeoJson.FeatureCollection actualTrips(String earnerId, String date, String cursor, Integer size) {
+        LocalDate day = LocalDate.parse(date);
+        int n = TripPages.size(size, defaultPageSize, maxPageSize);
+        List<TripDTO> rows = jobs.findDriverTripsPage(earnerId,
+                day.atStartOfDay(ZONE).toOffsetDateTime(), day.plusDays(1).atStartOfDay(ZONE).toOffsetDateTime(),
+                TripPages.decode(cursor), n + 1);
+        return TripPages.of(rows, n, date, h3);
+    }
+
+    @Override
+    public GeoJson.FeatureCollection counterfactualTrips(String earnerId, String date, Integer page, Integer size) {
+        return stub.counterfactualTrips(earnerId, date, page, size);
+    }
+}
@@ -0,0 +1,85 @@
+package com.junctionx.backend.service.impl;
+
+import com.junctionx.backend.dto.DevDriverSummary;
+import com.junctionx.backend.dto.DevEarningsCompare;
+import com.junctionx.backend.dto.GeoJson;
+import com.junctionx.backend.service.DevRegionService;
+import com.junctionx.backend.sim.RegionSimulationService;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.util.H3Util;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dev region views backed by the region-wide simulation engine when regionId is a numeric city
+ * id; other region ids, and actual trips, still come from the stub.
+ */
+@Primary
+@Service
+public class SimDevRegionService implements DevRegionService {
+
+    private final RegionSimulationService regionSim;
+    private final StubDevRegionService stub;
+    private final H3Util h3;
+
+    public SimDevRegionService(RegionSimulationService regionSim, StubDevRegionService stub, H3Util h3) {
+        this.regionSim = regionSim;
+        this.stub = stub;
+        this.h3 = h3;
+    }
+
+    @Override
+    public List<DevDriverSummary> activeDrivers(String regionId, String date) {
+        Integer cityId = cityId(regionId);
+        if (cityId == null) return stub.activeDrivers(regionId, date);
+        List<DevDriverSummary> out = new ArrayList<>();
+        for (var e : simulate(cityId, date).entrySet()) {
+            var r = e.getValue();
+            out.add(new DevDriverSummary(e.getKey(), r.baseline().tripsCount(),
+                    r.baseline().earnings(), r.simulated().earnings()));
+        }
+        return out;
+    }
+
+    @Override
+    public GeoJson.FeatureCollection actualTrips(String regionId, String date) {
+        return stub.actualTrips(regionId, date);
+    }
+
+    @Override
+    public GeoJson.FeatureCollection counterfactualTrips(String regionId, String date) {
+        Integer cityId = cityId(regionId);
+        if (cityId == null) return stub.counterfactualTrips(regionId, date);
+        return CounterfactualFeatures.of(simulate(cityId, date), null, date, h3);
+    }
+
+    @Override
+    public DevEarningsCompare earningsCompare(String regionId, String date) {
+        Integer cityId = cityId(regionId);
+        if (cityId == null) return stub.earningsCompare(regionId, date);
+        double actual = 0, predicted = 0;
+        for (SimulationResult r : simulate(cityId, date).values()) {
+            actual += r.baseline().earnings();
+            predicted += r.simulated().earnings();
+        }
+        return new DevEarningsCompare(actual, predicted);
+    }
+
+    private Map<String, SimulationResult> simulate(int cityId, String date) {
+        return regionSim.simulateCityDay(cityId, LocalDate.parse(date), null, null, null);
+    }
+
+    // Null for region ids that are not city ids (the stub's demo regions)
+    private static Integer cityId(String regionId) {
+        try {
+            return Integer.parseInt(regionId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.junctionx.backend.service.impl;
+
+import com.junctionx.backend.dto.GeoJson.FeatureCollection;
+import com.junctionx.backend.repository.JobsReadRepository;
+import com.junctionx.backend.service.RegionService;
+import com.junctionx.backend.sim.RegionSimulationService;
+import com.junctionx.backend.sim.dto.TripDTO;
+import com.junctionx.backend.sim.util.H3Util;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Region endpoints backed by the region-wide simulation engine; actual trips are keyset pages
+ * of public.jobs, counterfactual trips are numbered pages of the (cached) city-day result when
+ * page or size is given. The heatmap still comes from the stub until it gets a real query.
+ */
+@Primary
+@Service
+public class SimRegionService implements RegionService {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
+
+    private final RegionSimulationService regionSim;
+    private final StubRegionService stub;
+    private final JobsReadRepository jobs;
+    private final H3Util h3;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public SimRegionService(RegionSimulationService regionSim, StubRegionService stub,
+                            JobsReadRepository jobs, H3Util h3,
+                            @Value("${jobs.page.default-size:200}") int defaultPageSize,
+                            @Value("${jobs.page.max-size:1000}") int maxPageSize) {
+        this.regionSim = regionSim;
+        this.stub = stub;
+        this.jobs = jobs;
+        this.h3 = h3;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public FeatureCollection actualTrips(int cityId, String date, String cursor, Integer size, String earnerIdsCsv) {
+        LocalDate day = LocalDate.parse(date);
+        int n = TripPages.size(size, defaultPageSize, maxPageSize);
+        List<TripDTO> rows = jobs.findCityTripsPage(cityId,
+                day.atStartOfDay(ZONE).toOffsetDateTime(), day.plusDays(1).atStartOfDay(ZONE).toOffsetDateTime(),
+                CounterfactualFeatures.parseIds(earnerIdsCsv), TripPages.decode(cursor), n + 1);
+        return TripPages.of(rows, n, date, h3);
+    }
+
+    @Override
+    public FeatureCollection counterfactualTrips(int cityId, String date, Integer page, Integer size, String earnerIdsCsv) {
+        var results = regionSim.simulateCityDay(cityId, LocalDate.parse(date), null, null, null);
+        FeatureCollection all = CounterfactualFeatures.of(results, CounterfactualFeatures.parseIds(earnerIdsCsv), date, h3);
+        if (page == null && size == null) return all;
+        return CounterfactualFeatures.page(all, page, TripPages.size(size, defaultPageSize, maxPageSize));
+    }
+
+    @Override
+    public FeatureCollection heatmap(int cityId, String date) {
+        return stub.heatmap(cityId, date);
+    }
+}
@@ -70,7 +70,7 @@ public class StubDriverTripsService implements DriverTripsService {
 
     // ---- Earner endpoints (date as String) ----
     @Override
-    public GeoJson.FeatureCollection actualTrips(String earnerId, String date, Integer page, Integer size) {
+    public GeoJson.FeatureCollection actualTrips(String earnerId, String date, String cursor, Integer size) {
         Map<String, Object> geom = Map.of(
                 "type", "LineString",
                 "coordinates", List.of(
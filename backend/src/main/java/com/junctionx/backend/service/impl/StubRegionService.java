@@ -12,7 +12,7 @@ import java.util.Map;
 @Service
 public class StubRegionService implements RegionService {
     @Override
-    public FeatureCollection actualTrips(int cityId, String date, Integer page, Integer size, String earnerIdsCsv) {
+    public FeatureCollection actualTrips(int cityId, String date, String cursor, Integer size, String earnerIdsCsv) {
         var f = new Feature(
                 Map.of("type","LineString","coordinates", List.of(List.of(4.35,52.01), List.of(4.37,52.00))),
                 Map.of("tripId","r-1","earnerId","E10111","start",date+"T10:00:00","netEur",13.4)
@@ -0,0 +1,90 @@
+package com.junctionx.backend.service.impl;
+
+import com.junctionx.backend.dto.GeoJson;
+import com.junctionx.backend.repository.JobsReadRepository.TripKey;
+import com.junctionx.backend.sim.dto.TripDTO;
+import com.junctionx.backend.sim.util.H3Util;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset pages of actual trips. The cursor is the (start_time, job_id) of the last row sent,
+ * base64url-encoded; clients pass it back unchanged. Queries fetch size + 1 rows so the extra row
+ * tells whether there is a next page without a count.
+ */
+final class TripPages {
+
+    private TripPages() {}
+
+    /** Requested page size, defaulted and capped; 400 for non-positive sizes. */
+    static int size(Integer requested, int defaultSize, int maxSize) {
+        if (requested == null) return defaultSize;
+        if (requested < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be >= 1");
+        return Math.min(requested, maxSize);
+    }
+
+    /** Null for the first page. */
+    static TripKey decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = s.indexOf(':');
+            Instant start = Instant.EPOCH.plus(Long.parseLong(s.substring(0, sep)), ChronoUnit.MICROS);
+            return new TripKey(OffsetDateTime.ofInstant(start, ZoneOffset.UTC), s.substring(sep + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
+
+    // Postgres timestamps are microseconds, so this is exact
+    static String encode(TripDTO last) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, last.startTs().toInstant());
+        String s = micros + ":" + last.rideId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** {@code rows} as fetched with limit size + 1; at most {@code size} become features. */
+    static GeoJson.FeatureCollection of(List<TripDTO> rows, int size, String date, H3Util h3) {
+        boolean more = rows.size() > size;
+        List<TripDTO> page = more ? rows.subList(0, size) : rows;
+
+        List<GeoJson.Feature> features = new ArrayList<>(page.size());
+        for (TripDTO t : page) {
+            List<Double> from = h3.lonLat(t.pickupH3());
+            List<Double> to   = h3.lonLat(t.dropoffH3());
+
+            Map<String, Object> geometry = null; // unknown cell: GeoJSON's unlocated feature
+            if (from != null && to != null) {
+                geometry = new LinkedHashMap<>();
+                geometry.put("type", "LineString");
+                geometry.put("coordinates", List.of(from, to));
+            }
+
+            Map<String, Object> props = new LinkedHashMap<>();
+            props.put("tripId", t.rideId());
+            props.put("earnerId", t.driverId());
+            props.put("date", date);
+            props.put("start", t.startTs().toString());
+            props.put("end", t.endTs() == null ? null : t.endTs().toString());
+            props.put("pickupHex", t.pickupHexId9());
+            props.put("dropHex", t.dropoffHexId9());
+            props.put("durationMins", t.durationMins());
+            props.put("netEur", t.fare());
+
+            features.add(new GeoJson.Feature(geometry, props));
+        }
+        // Cursor only when the extra row proved there is more
+        return new GeoJson.FeatureCollection(features, more ? encode(page.get(page.size() - 1)) : null);
+    }
+}
@@ -1,9 +1,11 @@
 package com.junctionx.backend.sim;
 
+import com.junctionx.backend.repository.DriverDayMetricsRepository;
 import com.junctionx.backend.repository.JobsReadRepository;
 import com.junctionx.backend.sim.dto.BaselineMetrics;
 import com.junctionx.backend.sim.dto.TripDTO;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
 import java.util.List;
@@ -15,17 +17,38 @@ public class BaselineService {
     private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
 
     private final JobsReadRepository jobs;
+    private final DriverDayMetricsRepository rollup;
 
-    public BaselineService(JobsReadRepository jobs) { this.jobs = jobs; }
+    /** {@code rollup} may be null (e.g. backend-bench); every call then computes from the trips. */
+    public BaselineService(JobsReadRepository jobs, DriverDayMetricsRepository rollup) {
+        this.jobs = jobs;
+        this.rollup = rollup;
+    }
 
+    /** Reads the precomputed driver_day_metrics row; falls back to the trips when it is missing. */
+    @Transactional(readOnly = true)
     public BaselineMetrics compute(String driverId, LocalDate date) {
+        if (rollup != null) {
+            var row = rollup.find(driverId, date);
+            if (row.isPresent()) return row.get();
+        }
+        return computeLive(driverId, date);
+    }
+
+    /** Derives the baseline from the driver's trips for the day, bypassing the rollup. */
+    @Transactional(readOnly = true)
+    public BaselineMetrics computeLive(String driverId, LocalDate date) {
         var dayStart = date.atStartOfDay(ZONE).toOffsetDateTime();
         var dayEnd   = date.plusDays(1).atStartOfDay(ZONE).toOffsetDateTime();
 
-        List<TripDTO> trips = jobs.findDriverTripsForDay(driverId, dayStart, dayEnd);
+        return fromTrips(jobs.findDriverTripsForDay(driverId, dayStart, dayEnd), dayStart);
+    }
+
+    /** Same metrics from a driver's trips for the day, already sorted by start (no DB access). */
+    public BaselineMetrics fromTrips(List<TripDTO> trips, OffsetDateTime dayStart) {
         int tripsCount = trips.size();
         if (tripsCount == 0) {
-            return new BaselineMetrics(0,0,0,0, null, dayStart, dayStart, null, 0);
+            return new BaselineMetrics(0,0,0,0, null, dayStart, dayStart, 0L, 0);
         }
 
         double drive = 0, earn = 0, idle = 0, rest = 0;
@@ -48,7 +71,7 @@ public class BaselineService {
 
         return new BaselineMetrics(
                 drive, earn, idle, rest,
-                first.cityId(), first.startTs(), last.endTs(), first.pickupHexId9(),
+                first.cityId(), first.startTs(), last.endTs(), first.pickupH3(),
                 tripsCount
         );
     }
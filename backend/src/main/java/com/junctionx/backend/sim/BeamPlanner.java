@@ -0,0 +1,110 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.sim.dto.TripDTO;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded lookahead over pre-scored, in-memory candidates. From the current window it keeps the
+ * {@code width} best partial plans per level, extends them {@code depth} trips deep (levels are
+ * expanded in parallel) and returns the first trip of the highest cumulative-score plan. When the
+ * deadline passes it stops deepening and answers with the best plan found so far. Plans see the
+ * replica's {@link Perturbation}: hidden trips are skipped and durations stretched as in the loop.
+ */
+final class BeamPlanner {
+
+    private final CityDayTripIndex index;
+    private final Map<String, Double> scores;
+    private final LongFunction<long[]> ring;
+    private final Perturbation perturbation;
+    private final int laMin;
+    private final int width;
+    private final int depth;
+
+    /** One partial plan; {@code parent} chains back to the first trip so paths are never copied. */
+    private record Node(TripDTO trip, Node parent, OffsetDateTime time, long hex, double drive, double value) {
+        TripDTO first() {
+            Node n = this;
+            while (n.parent != null) n = n.parent;
+            return n.trip;
+        }
+
+        boolean onPath(String rideId) {
+            for (Node n = this; n != null; n = n.parent) {
+                if (n.trip.rideId().equals(rideId)) return true;
+            }
+            return false;
+        }
+    }
+
+    BeamPlanner(CityDayTripIndex index,
+                Map<String, Double> scores,
+                LongFunction<long[]> ring,
+                Perturbation perturbation,
+                int laMin,
+                int width,
+                int depth) {
+        this.index = index;
+        this.scores = scores;
+        this.ring = ring;
+        this.perturbation = perturbation;
+        this.laMin = laMin;
+        this.width = Math.max(1, width);
+        this.depth = Math.max(1, depth);
+    }
+
+    /**
+     * First trip of the best plan starting from {@code window}; null if no candidate keeps
+     * drive within {@code maxDrive}. {@code claimed} is only read.
+     */
+    TripDTO plan(List<TripDTO> window, double drive, double maxDrive, Set<String> claimed, long deadlineNanos) {
+        List<Node> beam = topChildren(null, window, drive, maxDrive, claimed);
+        if (beam.isEmpty()) return null;
+        Node best = beam.get(0);
+
+        for (int level = 2; level <= depth; level++) {
+            if (System.nanoTime() >= deadlineNanos) break;
+
+            List<Node> children = beam.parallelStream()
+                    .flatMap(n -> expand(n, maxDrive, claimed).stream())
+                    .sorted(Comparator.comparingDouble(Node::value).reversed())
+                    .limit(width)
+                    .toList();
+            if (children.isEmpty()) break;
+
+            beam = children;
+            if (beam.get(0).value() > best.value()) best = beam.get(0);
+        }
+        return best.first();
+    }
+
+    private List<Node> expand(Node n, double maxDrive, Set<String> claimed) {
+        OffsetDateTime windowEnd = n.time().plusMinutes(laMin);
+        if (!index.covers(n.time(), windowEnd)) return List.of();
+        List<TripDTO> window = index.findWindowedCandidates(n.time(), windowEnd, ring.apply(n.hex()));
+        return topChildren(n, window, n.drive(), maxDrive, claimed);
+    }
+
+    private List<Node> topChildren(Node parent, List<TripDTO> window, double drive, double maxDrive, Set<String> claimed) {
+        List<Node> out = new ArrayList<>();
+        for (TripDTO t : window) {
+            if (t.endTs() == null || claimed.contains(t.rideId()) || !perturbation.available(t)) continue;
+            if (parent != null && parent.onPath(t.rideId())) continue;
+            double factor = perturbation.durationFactor(t);
+            double d = (t.durationMins() == null ? 0.0 : t.durationMins()) * factor;
+            if (drive + d > maxDrive) continue;
+            double value = (parent == null ? 0.0 : parent.value()) + score(t);
+            OffsetDateTime end = factor == 1.0 ? t.endTs() : t.startTs().plusSeconds(Math.round(d * 60));
+            out.add(new Node(t, parent, end, t.dropoffH3(), drive + d, value));
+        }
+        out.sort(Comparator.comparingDouble(Node::value).reversed());
+        return out.size() > width ? out.subList(0, width) : out;
+    }
+
+    private double score(TripDTO t) {
+        double s = scores.getOrDefault(t.rideId(), Double.NEGATIVE_INFINITY);
+        return Double.isFinite(s) ? s : 0.0;
+    }
+}
@@ -0,0 +1,164 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.sim.dto.TripDTO;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Immutable in-memory snapshot of a city's trips over [from, to), bucketed by
+ * pickup hex and fixed start-time slot. Answers the same question as
+ * JobsReadRepository.findWindowedCandidates without a DB round trip.
+ */
+public final class CityDayTripIndex {
+
+    static final int SLOT_MINUTES = 15;
+
+    private static final Comparator<TripDTO> BY_START = Comparator.comparing(TripDTO::startTs);
+
+    private final OffsetDateTime from;
+    private final OffsetDateTime to;
+    private final int slotCount;
+    private final int size;
+    // sorted pickup cells; slotsByHex[i] holds cell hexKeys[i]'s trips per slot, sorted by start
+    private final long[] hexKeys;
+    private final TripDTO[][][] slotsByHex;
+
+    private CityDayTripIndex(OffsetDateTime from, OffsetDateTime to, int slotCount, int size,
+                             long[] hexKeys, TripDTO[][][] slotsByHex) {
+        this.from = from;
+        this.to = to;
+        this.slotCount = slotCount;
+        this.size = size;
+        this.hexKeys = hexKeys;
+        this.slotsByHex = slotsByHex;
+    }
+
+    /** Builds the index; trips starting outside [from, to) or without a pickup hex are dropped. */
+    public static CityDayTripIndex build(List<TripDTO> trips, OffsetDateTime from, OffsetDateTime to) {
+        int slotCount = (int) Math.max(1, Math.ceilDiv(Duration.between(from, to).toMinutes(), SLOT_MINUTES));
+
+        Map<Long, List<List<TripDTO>>> tmp = new HashMap<>();
+        int size = 0;
+        for (TripDTO t : trips) {
+            if (t.pickupH3() == 0L || t.startTs() == null) continue;
+            if (t.startTs().isBefore(from) || !t.startTs().isBefore(to)) continue;
+            int slot = slotOf(from, t.startTs());
+            List<List<TripDTO>> slots = tmp.computeIfAbsent(t.pickupH3(), h -> {
+                List<List<TripDTO>> l = new ArrayList<>(slotCount);
+                for (int i = 0; i < slotCount; i++) l.add(null);
+                return l;
+            });
+            List<TripDTO> bucket = slots.get(slot);
+            if (bucket == null) { bucket = new ArrayList<>(4); slots.set(slot, bucket); }
+            bucket.add(t);
+            size++;
+        }
+
+        long[] hexKeys = new long[tmp.size()];
+        int h = 0;
+        for (Long key : tmp.keySet()) hexKeys[h++] = key;
+        Arrays.sort(hexKeys);
+
+        TripDTO[][][] slotsByHex = new TripDTO[hexKeys.length][][];
+        for (h = 0; h < hexKeys.length; h++) {
+            List<List<TripDTO>> buckets = tmp.get(hexKeys[h]);
+            TripDTO[][] slots = new TripDTO[slotCount][];
+            for (int i = 0; i < slotCount; i++) {
+                List<TripDTO> bucket = buckets.get(i);
+                if (bucket == null) continue;
+                bucket.sort(BY_START);
+                slots[i] = bucket.toArray(new TripDTO[0]);
+            }
+            slotsByHex[h] = slots;
+        }
+        return new CityDayTripIndex(from, to, slotCount, size, hexKeys, slotsByHex);
+    }
+
+    /** True if [fromTs, toTs] lies entirely inside the indexed range. */
+    public boolean covers(OffsetDateTime fromTs, OffsetDateTime toTs) {
+        return !fromTs.isBefore(from) && toTs.isBefore(to);
+    }
+
+    /** Trips with fromTs <= start <= toTs and pickup in the given hexes, ordered by start. */
+    public List<TripDTO> findWindowedCandidates(OffsetDateTime fromTs,
+                                                OffsetDateTime toTs,
+                                                long[] pickupHexes) {
+        if (toTs.isBefore(fromTs) || toTs.isBefore(from) || !fromTs.isBefore(to)) return List.of();
+        int s0 = fromTs.isBefore(from) ? 0 : slotOf(from, fromTs);
+        int s1 = toTs.isBefore(to) ? slotOf(from, toTs) : slotCount - 1;
+
+        List<TripDTO> out = new ArrayList<>();
+        for (long hex : pickupHexes) {
+            TripDTO[][] slots = slotsOf(hex);
+            if (slots == null) continue;
+            for (int s = s0; s <= s1; s++) {
+                TripDTO[] bucket = slots[s];
+                if (bucket == null) continue;
+                for (TripDTO t : bucket) {
+                    if (t.startTs().isBefore(fromTs)) continue;
+                    if (t.startTs().isAfter(toTs)) break;
+                    out.add(t);
+                }
+            }
+        }
+        out.sort(BY_START);
+        return out;
+    }
+
+    /**
+     * Earliest start at or after {@code ts} among trips picked up in the given hexes, skipping
+     * trips matched by {@code skip}; null if none is left in the indexed range.
+     */
+    public OffsetDateTime earliestStartAtOrAfter(OffsetDateTime ts,
+                                                 long[] pickupHexes,
+                                                 Predicate<TripDTO> skip) {
+        if (!ts.isBefore(to)) return null;
+        int s0 = ts.isBefore(from) ? 0 : slotOf(from, ts);
+
+        OffsetDateTime best = null;
+        for (long hex : pickupHexes) {
+            TripDTO[][] slots = slotsOf(hex);
+            if (slots == null) continue;
+            scan:
+            for (int s = s0; s < slotCount; s++) {
+                TripDTO[] bucket = slots[s];
+                if (bucket == null) continue;
+                for (TripDTO t : bucket) {
+                    if (best != null && !t.startTs().isBefore(best)) break scan;
+                    if (t.startTs().isBefore(ts) || skip.test(t)) continue;
+                    best = t.startTs();
+                    break scan;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Every indexed ride id, e.g. for scoring the whole snapshot in bulk. */
+    public List<String> rideIds() {
+        List<String> ids = new ArrayList<>(size);
+        for (TripDTO[][] slots : slotsByHex) {
+            for (TripDTO[] bucket : slots) {
+                if (bucket == null) continue;
+                for (TripDTO t : bucket) ids.add(t.rideId());
+            }
+        }
+        return ids;
+    }
+
+    public OffsetDateTime from() { return from; }
+    public OffsetDateTime to()   { return to; }
+    public int size()            { return size; }
+
+    private TripDTO[][] slotsOf(long hex) {
+        int i = Arrays.binarySearch(hexKeys, hex);
+        return i < 0 ? null : slotsByHex[i];
+    }
+
+    private static int slotOf(OffsetDateTime from, OffsetDateTime ts) {
+        return (int) (Duration.between(from, ts).toMinutes() / SLOT_MINUTES);
+    }
+}
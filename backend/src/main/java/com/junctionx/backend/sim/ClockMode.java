@@ -0,0 +1,9 @@
+package com.junctionx.backend.sim;
+
+/** How the simulation clock advances when a window has no candidates. */
+public enum ClockMode {
+    /** Nudge forward 5 minutes and look again. */
+    STEP,
+    /** Jump straight to the next unclaimed trip start in the current hex ring. */
+    NEXT_EVENT
+}
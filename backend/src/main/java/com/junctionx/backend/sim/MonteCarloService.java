@@ -0,0 +1,126 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.dto.MonteCarloSummary;
+import com.junctionx.backend.dto.PercentileBand;
+import com.junctionx.backend.sim.dto.BaselineMetrics;
+import com.junctionx.backend.sim.dto.SimMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs N perturbed replicas of a driver-day (trips randomly withheld, durations jittered) and
+ * summarises them as percentile bands. Baseline, trip snapshot and scores are loaded once and
+ * shared read-only; each replica only carries its seed.
+ */
+@Service
+public class MonteCarloService {
+
+    private final SimulationService sim;
+    private final BaselineService baselineService;
+    private final int parallelism;
+    private final int maxReplicas;
+    private final double dropRateDefault;
+    private final double durationJitterDefault;
+
+    public MonteCarloService(SimulationService sim,
+                             BaselineService baselineService,
+                             @Value("${simulation.monte-carlo.parallelism:0}") int parallelism,
+                             @Value("${simulation.monte-carlo.max-replicas:1000}") int maxReplicas,
+                             @Value("${simulation.monte-carlo.drop-rate:0.1}") double dropRate,
+                             @Value("${simulation.monte-carlo.duration-jitter:0.1}") double durationJitter) {
+        this.sim = sim;
+        this.baselineService = baselineService;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxReplicas = maxReplicas;
+        this.dropRateDefault = dropRate;
+        this.durationJitterDefault = durationJitter;
+    }
+
+    /**
+     * Replica i uses seed {@code seed + i}, so the same request always gives the same bands.
+     * Null knobs use the simulation.monte-carlo.* defaults; returns null when there is no baseline.
+     */
+    public MonteCarloSummary run(String driverId,
+                                 LocalDate date,
+                                 Integer toleranceMinutes,
+                                 Integer lookaheadMinutes,
+                                 Integer hexRingK,
+                                 SimOptions options,
+                                 int replicas,
+                                 Long seed,
+                                 Double dropRate,
+                                 Double durationJitter) {
+        if (replicas <= 0 || replicas > maxReplicas) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "replicas must be between 1 and " + maxReplicas);
+        }
+        final long s0 = Optional.ofNullable(seed).orElse(0L);
+        final double drop = Optional.ofNullable(dropRate).orElse(dropRateDefault);
+        final double jitter = Optional.ofNullable(durationJitter).orElse(durationJitterDefault);
+        if (drop < 0 || drop >= 1 || jitter < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "dropRate must be in [0, 1) and durationJitter >= 0");
+        }
+
+        BaselineMetrics base = baselineService.compute(driverId, date);
+        if (!SimulationService.hasBaseline(base)) return null;
+
+        CityDayTripIndex index = sim.loadIndex(Integer.parseInt(base.cityId()), date, base,
+                sim.lookaheadOrDefault(lookaheadMinutes));
+        Map<String, Double> scores = sim.prescore(index);
+
+        SimMetrics[] out = new SimMetrics[replicas];
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, replicas));
+        try {
+            pool.submit(() -> IntStream.range(0, replicas).parallel().forEach(i ->
+                    out[i] = sim.simulate(base, index, scores, new HashSet<>(),
+                            toleranceMinutes, lookaheadMinutes, hexRingK, options,
+                            new Perturbation(s0 + i, drop, jitter), SimulationListener.NONE).simulated()
+            )).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Monte Carlo run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Monte Carlo run failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double[] earn = new double[replicas], uplift = new double[replicas],
+                drive = new double[replicas], idle = new double[replicas], rest = new double[replicas];
+        for (int i = 0; i < replicas; i++) {
+            earn[i]   = out[i].earnings();
+            uplift[i] = out[i].earnings() - base.earnings();
+            drive[i]  = out[i].driveMins();
+            idle[i]   = out[i].idleMins();
+            rest[i]   = out[i].restMins();
+        }
+        return new MonteCarloSummary(replicas, s0, drop, jitter,
+                band(earn), band(uplift), band(drive), band(idle), band(rest));
+    }
+
+    private static PercentileBand band(double[] v) {
+        Arrays.sort(v);
+        double sum = 0;
+        for (double x : v) sum += x;
+        return new PercentileBand(
+                percentile(v, 0.05), percentile(v, 0.25), percentile(v, 0.50),
+                percentile(v, 0.75), percentile(v, 0.95), sum / v.length);
+    }
+
+    // Linear interpolation between closest ranks; v must be sorted
+    private static double percentile(double[] v, double q) {
+        double pos = q * (v.length - 1);
+        int lo = (int) Math.floor(pos);
+        int hi = Math.min(lo + 1, v.length - 1);
+        return v[lo] + (v[hi] - v[lo]) * (pos - lo);
+    }
+}
@@ -0,0 +1,168 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.dto.SimImprovements;
+import com.junctionx.backend.dto.SweepResponse;
+import com.junctionx.backend.dto.SweepRow;
+import com.junctionx.backend.sim.dto.BaselineMetrics;
+import com.junctionx.backend.sim.dto.SimMetrics;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Evaluates a (tol, lookahead, k) grid against one data load. Trips are read and scored once
+ * with the snapshot sized for the largest lookahead; every grid point then runs purely in memory
+ * on a fork-join pool.
+ */
+@Service
+public class ParameterSweepService {
+
+    private static final Comparator<SweepRow> RANKING =
+            Comparator.comparingDouble((SweepRow r) -> r.improvements().earningsAbs()).reversed()
+                    .thenComparingDouble(r -> Math.abs(r.improvements().driveMinsAbs()));
+
+    private final SimulationService sim;
+    private final BaselineService baselineService;
+    private final RegionSimulationService region;
+    private final int parallelism;
+    private final int maxPoints;
+
+    public ParameterSweepService(SimulationService sim,
+                                 BaselineService baselineService,
+                                 RegionSimulationService region,
+                                 @Value("${simulation.sweep.parallelism:0}") int parallelism,
+                                 @Value("${simulation.sweep.max-points:500}") int maxPoints) {
+        this.sim = sim;
+        this.baselineService = baselineService;
+        this.region = region;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxPoints = maxPoints;
+    }
+
+    private record Point(int tol, int lookahead, int k) {}
+
+    /** Sweeps one driver's day. Empty grids fall back to the simulation.* default for that axis. */
+    public SweepResponse sweepDriverDay(String driverId,
+                                       LocalDate date,
+                                       List<Integer> tols,
+                                       List<Integer> lookaheads,
+                                       List<Integer> ks,
+                                       SimOptions options) {
+        long t0 = System.nanoTime();
+        List<Point> grid = grid(tols, lookaheads, ks);
+
+        BaselineMetrics base = baselineService.compute(driverId, date);
+        SimMetrics baseline = SimMetrics.of(base);
+        if (!SimulationService.hasBaseline(base)) {
+            return new SweepResponse(driverId, null, date.toString(), 0, baseline, elapsedMs(t0), List.of());
+        }
+
+        CityDayTripIndex index = sim.loadIndex(Integer.parseInt(base.cityId()), date, base, maxLookahead(grid));
+        Map<String, Double> scores = sim.prescore(index);
+
+        List<SweepRow> rows = run(grid, p -> sim.simulate(base, index, scores, new HashSet<>(),
+                p.tol(), p.lookahead(), p.k(), options, Perturbation.NONE, SimulationListener.NONE).simulated(), baseline);
+        return new SweepResponse(driverId, null, date.toString(), 1, baseline, elapsedMs(t0), rows);
+    }
+
+    /**
+     * Sweeps a whole city-day: each grid point is a full region run, contested rides settled the
+     * same way as the region endpoints, and rows report totals over all drivers.
+     */
+    public SweepResponse sweepCityDay(int cityId,
+                                      LocalDate date,
+                                      List<Integer> tols,
+                                      List<Integer> lookaheads,
+                                      List<Integer> ks,
+                                      SimOptions options) {
+        long t0 = System.nanoTime();
+        List<Point> grid = grid(tols, lookaheads, ks);
+
+        RegionSimulationService.CityDay day = region.load(cityId, date, maxLookahead(grid));
+        SimMetrics baseline = sum(day.baselines().values().stream().map(SimMetrics::of).toList());
+        if (day.baselines().isEmpty()) {
+            return new SweepResponse(null, cityId, date.toString(), 0, baseline, elapsedMs(t0), List.of());
+        }
+        Map<String, Double> scores = sim.prescore(day.index());
+
+        List<SweepRow> rows = run(grid, p -> sum(region.simulateAll(day, scores, p.tol(), p.lookahead(), p.k(), options)
+                .values().stream().map(SimulationResult::simulated).toList()), baseline);
+        return new SweepResponse(null, cityId, date.toString(), day.baselines().size(), baseline, elapsedMs(t0), rows);
+    }
+
+    private List<SweepRow> run(List<Point> grid,
+                               Function<Point, SimMetrics> point,
+                               SimMetrics baseline) {
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, grid.size()));
+        try {
+            List<SweepRow> rows = pool.submit(() -> grid.parallelStream()
+                    .map(p -> {
+                        SimMetrics s = point.apply(p);
+                        return new SweepRow(p.tol(), p.lookahead(), p.k(), s, SimImprovements.between(baseline, s));
+                    })
+                    .toList()).get();
+            return rows.stream().sorted(RANKING).toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parameter sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parameter sweep failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Point> grid(List<Integer> tols, List<Integer> lookaheads, List<Integer> ks) {
+        List<Integer> ts = axis(tols, sim.toleranceOrDefault(null));
+        List<Integer> ls = axis(lookaheads, sim.lookaheadOrDefault(null));
+        List<Integer> kk = axis(ks, sim.hexRingKOrDefault(null));
+
+        long n = (long) ts.size() * ls.size() * kk.size();
+        if (n > maxPoints) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Sweep grid has " + n + " points; limit is " + maxPoints);
+        }
+        if (ls.stream().anyMatch(v -> v <= 0) || kk.stream().anyMatch(v -> v < 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lookahead must be > 0 and k >= 0");
+        }
+
+        List<Point> out = new ArrayList<>((int) n);
+        for (int t : ts) for (int l : ls) for (int k : kk) out.add(new Point(t, l, k));
+        return out;
+    }
+
+    private static List<Integer> axis(List<Integer> values, int fallback) {
+        List<Integer> out = values == null ? List.of()
+                : values.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        return out.isEmpty() ? List.of(fallback) : out;
+    }
+
+    private static int maxLookahead(List<Point> grid) {
+        return grid.stream().mapToInt(Point::lookahead).max().orElseThrow();
+    }
+
+    private static SimMetrics sum(List<SimMetrics> all) {
+        double drive = 0, earn = 0, idle = 0, rest = 0;
+        int trips = 0;
+        for (SimMetrics m : all) {
+            drive += m.driveMins();
+            earn  += m.earnings();
+            idle  += m.idleMins();
+            rest  += m.restMins();
+            trips += m.tripsCount();
+        }
+        return new SimMetrics(drive, earn, idle, rest, trips);
+    }
+
+    private static long elapsedMs(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000L;
+    }
+}
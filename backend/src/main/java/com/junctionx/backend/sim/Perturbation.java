@@ -0,0 +1,57 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.sim.dto.TripDTO;
+
+/**
+ * Seeded noise for one Monte Carlo replica. Outcomes are a pure hash of (seed, rideId), so a ride
+ * keeps the same fate in every window of a replica and replicas need no per-run state or copies
+ * of the shared snapshot.
+ */
+final class Perturbation {
+
+    static final Perturbation NONE = new Perturbation(0L, 0.0, 0.0);
+
+    private static final long SALT_DROP = 0x632BE59BD9B4E019L;
+    private static final long SALT_DURATION = 0x8CB92BA72F3D8DD7L;
+
+    private final long seed;
+    private final double dropRate;
+    private final double durationJitter;
+
+    /**
+     * @param dropRate       probability that a trip is not on offer at all
+     * @param durationJitter sigma of a mean-1 log-normal factor applied to trip durations
+     */
+    Perturbation(long seed, double dropRate, double durationJitter) {
+        this.seed = seed;
+        this.dropRate = dropRate;
+        this.durationJitter = durationJitter;
+    }
+
+    boolean available(TripDTO t) {
+        return dropRate <= 0 || unit(mix(seed ^ SALT_DROP, t.rideId())) >= dropRate;
+    }
+
+    /** Multiplier for the trip's duration; exactly 1.0 when there is no jitter. */
+    double durationFactor(TripDTO t) {
+        if (durationJitter <= 0) return 1.0;
+        // Box-Muller from two independent hashes of the same ride
+        double u1 = Math.max(unit(mix(seed ^ SALT_DURATION, t.rideId())), Double.MIN_VALUE);
+        double u2 = unit(mix(seed ^ ~SALT_DURATION, t.rideId()));
+        double z = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+        return Math.exp(durationJitter * z - 0.5 * durationJitter * durationJitter);
+    }
+
+    // SplitMix64 finalizer over seed and the ride id's hash
+    private static long mix(long seed, String rideId) {
+        long z = seed + (rideId == null ? 0 : rideId.hashCode()) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Top 53 bits -> [0, 1)
+    private static double unit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+}
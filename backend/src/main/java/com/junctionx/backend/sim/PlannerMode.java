@@ -0,0 +1,9 @@
+package com.junctionx.backend.sim;
+
+/** How the next trip is chosen from a candidate window. */
+public enum PlannerMode {
+    /** Take the single best-scored candidate. */
+    GREEDY,
+    /** Look B candidates wide and D trips deep, commit the first trip of the best plan. */
+    BEAM
+}
@@ -0,0 +1,209 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.model.JobsImportedEvent;
+import com.junctionx.backend.model.JobsSnapshotRefreshedEvent;
+import com.junctionx.backend.repository.JobsReadRepository;
+import com.junctionx.backend.sim.dto.BaselineMetrics;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.dto.TimelineEvent;
+import com.junctionx.backend.sim.dto.TripDTO;
+import com.junctionx.backend.sim.ml.ModelClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Counterfactual day for every active driver of a city at once.
+ * One city-day read feeds both the baselines and a shared trip snapshot. All drivers are first
+ * simulated in parallel as if alone, then results are accepted in driverId order; a driver whose
+ * day uses a ride an earlier driver already took is simulated again, one at a time in driverId
+ * order, against every ride accepted so far. Lower driver ids win contested rides, so a city-day
+ * always comes out the same; results are kept per city-day until the next import or model reload.
+ */
+@Service
+public class RegionSimulationService {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
+
+    private record Key(int cityId, LocalDate date, int tol, int lookahead, int k, String modelVersion) {}
+
+    private final JobsReadRepository jobs;
+    private final BaselineService baselineService;
+    private final SimulationService sim;
+    private final ModelClient model;
+    private final AsyncTaskExecutor executor;
+    private final int parallelism;
+    private final int maxEntries;
+    private final Map<Key, Map<String, SimulationResult>> results;
+    // bumped by invalidateAll, so a city-day computed across a clear is not stored
+    private long generation;
+
+    public RegionSimulationService(JobsReadRepository jobs,
+                                   BaselineService baselineService,
+                                   SimulationService sim,
+                                   ModelClient model,
+                                   @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                                   @Value("${simulation.region.parallelism:0}") int parallelism,
+                                   @Value("${simulation.region.cache.max-entries:16}") int maxEntries) {
+        this.jobs = jobs;
+        this.baselineService = baselineService;
+        this.sim = sim;
+        this.model = model;
+        this.executor = executor;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Key, Map<String, SimulationResult>> eldest) {
+                return size() > RegionSimulationService.this.maxEntries;
+            }
+        };
+        model.addClearListener(this::invalidateAll);
+    }
+
+    /** One city-day read: per-driver baselines (ordered by driverId) plus the shared trip snapshot. */
+    record CityDay(Map<String, BaselineMetrics> baselines, CityDayTripIndex index) {}
+
+    /**
+     * Simulates all drivers with trips in the city on {@code date}.
+     * Returns driverId -> result, ordered by driverId; the map is shared and read-only.
+     */
+    public Map<String, SimulationResult> simulateCityDay(int cityId,
+                                                         LocalDate date,
+                                                         Integer toleranceMinutes,
+                                                         Integer lookaheadMinutes,
+                                                         Integer hexRingK) {
+        Key key = new Key(cityId, date, sim.toleranceOrDefault(toleranceMinutes),
+                sim.lookaheadOrDefault(lookaheadMinutes), sim.hexRingKOrDefault(hexRingK), model.modelVersion());
+        Map<String, SimulationResult> cached;
+        long gen;
+        synchronized (results) {
+            cached = results.get(key);
+            gen = generation;
+        }
+        if (cached != null) return cached;
+
+        CityDay day = load(cityId, date, key.lookahead());
+        Map<String, SimulationResult> out = Collections.unmodifiableMap(
+                simulateAll(day, null, toleranceMinutes, lookaheadMinutes, hexRingK, SimOptions.DEFAULTS));
+        // Same rules as SimulationResultCache: no wall-clock (BEAM) or score-less results
+        boolean stable = sim.resolve(SimOptions.DEFAULTS).planner() != PlannerMode.BEAM
+                && out.values().stream().noneMatch(r -> r.notes().contains(SimulationService.SCORES_UNAVAILABLE));
+        if (stable) {
+            synchronized (results) {
+                if (generation == gen) results.put(key, out);
+            }
+        }
+        return out;
+    }
+
+    public void invalidateAll() {
+        synchronized (results) {
+            generation++;
+            results.clear();
+        }
+    }
+
+    @EventListener
+    public void onJobsImported(JobsImportedEvent e) { invalidateAll(); }
+
+    // With jobs.snapshot.enabled the import is only visible here once the new snapshot is in
+    @EventListener
+    public void onSnapshotRefreshed(JobsSnapshotRefreshedEvent e) { invalidateAll(); }
+
+    /**
+     * Simulates every driver of a loaded city-day, settling contested rides as described above.
+     * {@code scores} optionally carries prescored rides for the day's snapshot (null scores on demand).
+     */
+    Map<String, SimulationResult> simulateAll(CityDay day, Map<String, Double> scores,
+                                              Integer tol, Integer lookahead, Integer k, SimOptions options) {
+        BiFunction<String, Set<String>, SimulationResult> one = (id, taken) -> sim.simulate(
+                day.baselines().get(id), day.index(), scores, new HashSet<>(taken), tol, lookahead, k,
+                options, Perturbation.NONE, SimulationListener.NONE);
+
+        // One parallel round against an empty set, accepted in driverId order
+        List<String> ids = List.copyOf(day.baselines().keySet());
+        Map<String, SimulationResult> first = runAll(ids, id -> one.apply(id, Set.of()));
+        Set<String> accepted = new HashSet<>();
+        List<String> retry = new ArrayList<>();
+        Map<String, SimulationResult> done = new HashMap<>();
+        for (String id : ids) {
+            List<String> rides = rides(first.get(id));
+            if (rides.stream().anyMatch(accepted::contains)) {
+                retry.add(id);
+            } else {
+                accepted.addAll(rides);
+                done.put(id, first.get(id));
+            }
+        }
+
+        // Then one sequential pass over the losers, each against everything accepted so far,
+        // so a city-day costs at most two simulations per driver
+        for (String id : retry) {
+            SimulationResult r = one.apply(id, accepted);
+            accepted.addAll(rides(r));
+            done.put(id, r);
+        }
+
+        Map<String, SimulationResult> out = new LinkedHashMap<>();
+        for (String id : ids) out.put(id, done.get(id));
+        return out;
+    }
+
+    private static List<String> rides(SimulationResult r) {
+        return r.timeline().stream().map(TimelineEvent::rideId).filter(Objects::nonNull).toList();
+    }
+
+    // At most `parallelism` workers per request on the shared executor, pulling drivers in turn
+    private Map<String, SimulationResult> runAll(List<String> ids, Function<String, SimulationResult> task) {
+        Map<String, SimulationResult> out = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < Math.min(parallelism, ids.size()); w++) {
+            workers.add(executor.submit(() -> {
+                for (int i; (i = next.getAndIncrement()) < ids.size(); ) out.put(ids.get(i), task.apply(ids.get(i)));
+            }));
+        }
+        try {
+            for (Future<?> f : workers) f.get();
+            return out;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Region simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Region simulation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            next.set(ids.size());
+            workers.forEach(f -> f.cancel(true));
+        }
+    }
+
+    /** Reads the city-day once; the snapshot covers windows up to {@code laMin} minutes long. */
+    CityDay load(int cityId, LocalDate date, int laMin) {
+        OffsetDateTime dayStart = date.atStartOfDay(ZONE).toOffsetDateTime();
+        OffsetDateTime dayEnd   = date.plusDays(1).atStartOfDay(ZONE).toOffsetDateTime();
+
+        // Spill past midnight so late shifts still see their last windows in memory
+        OffsetDateTime to = sim.indexEnd(date, dayEnd.plusHours(1), laMin);
+        List<TripDTO> trips = jobs.findCityTripsForDay(cityId, dayStart, to);
+
+        Map<String, List<TripDTO>> byDriver = trips.stream()
+                .filter(t -> t.driverId() != null && t.startTs().isBefore(dayEnd))
+                .collect(Collectors.groupingBy(TripDTO::driverId, TreeMap::new, Collectors.toList()));
+
+        Map<String, BaselineMetrics> baselines = new LinkedHashMap<>();
+        for (var e : byDriver.entrySet()) baselines.put(e.getKey(), baselineService.fromTrips(e.getValue(), dayStart));
+        return new CityDay(baselines, CityDayTripIndex.build(trips, dayStart, to));
+    }
+}
@@ -0,0 +1,15 @@
+package com.junctionx.backend.sim;
+
+/**
+ * Optional per-request simulation knobs beyond tolerance/lookahead/k.
+ * Any null field falls back to the matching simulation.* property.
+ */
+public record SimOptions(
+        ClockMode clock,
+        PlannerMode planner,
+        Integer beamWidth,
+        Integer beamDepth,
+        Integer budgetMs
+) {
+    public static final SimOptions DEFAULTS = new SimOptions(null, null, null, null, null);
+}
@@ -0,0 +1,19 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.sim.dto.SimMetrics;
+import com.junctionx.backend.sim.dto.TimelineEvent;
+
+/**
+ * Observes a running simulation. Events arrive in timeline order once they are final
+ * (an overshoot revert never reaches the listener); {@code running} is the totals so far.
+ * Called on the simulating thread, so keep it cheap.
+ */
+public interface SimulationListener {
+
+    SimulationListener NONE = (event, running) -> {};
+
+    void onEvent(TimelineEvent event, SimMetrics running);
+
+    /** Polled once per loop iteration; returning true stops the run early with a note. */
+    default boolean cancelled() { return false; }
+}
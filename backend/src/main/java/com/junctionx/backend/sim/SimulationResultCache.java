@@ -0,0 +1,116 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.model.JobsImportedEvent;
+import com.junctionx.backend.model.JobsSnapshotRefreshedEvent;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.ml.ModelClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU of simulateDay results keyed by driver, date, tuning parameters (defaults filled in)
+ * and model version. Cleared when an import lands new jobs, when a new jobs snapshot replaces the
+ * one simulations read from, or when the ML score cache is cleared.
+ * BEAM runs depend on the wall-clock budget and runs without model scores on the ML server being
+ * reachable, so neither is cached.
+ */
+@Component
+public class SimulationResultCache {
+
+    public record Stats(long hits, long misses, long evictions, long uncached, int size, int maxEntries) {}
+
+    private record Key(String driverId, LocalDate date, int tol, int lookahead, int k,
+                       ClockMode clock, PlannerMode planner, String modelVersion) {}
+
+    private final SimulationService sim;
+    private final ModelClient model;
+    private final int maxEntries;
+    private final Map<Key, SimulationResult> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong uncached = new AtomicLong();
+    // bumped by invalidateAll, so a result computed across a clear is not stored
+    private long generation;
+
+    public SimulationResultCache(SimulationService sim,
+                                 ModelClient model,
+                                 @Value("${simulation.cache.max-entries:512}") int maxEntries) {
+        this.sim = sim;
+        this.model = model;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Key, SimulationResult> eldest) {
+                boolean evict = size() > SimulationResultCache.this.maxEntries;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+        model.addClearListener(this::invalidateAll);
+    }
+
+    /** simulateDay, answered from the cache when the same driver-day and parameters were run before. */
+    public SimulationResult simulateDay(String driverId,
+                                        LocalDate date,
+                                        Integer toleranceMinutes,
+                                        Integer lookaheadMinutes,
+                                        Integer hexRingK,
+                                        SimOptions options) {
+        SimOptions resolved = sim.resolve(options);
+        if (resolved.planner() == PlannerMode.BEAM) {
+            uncached.incrementAndGet();
+            return sim.simulateDay(driverId, date, toleranceMinutes, lookaheadMinutes, hexRingK, options);
+        }
+        Key key = new Key(driverId, date, sim.toleranceOrDefault(toleranceMinutes),
+                sim.lookaheadOrDefault(lookaheadMinutes), sim.hexRingKOrDefault(hexRingK),
+                resolved.clock(), resolved.planner(), model.modelVersion());
+        SimulationResult cached;
+        long gen;
+        synchronized (entries) {
+            cached = entries.get(key);
+            gen = generation;
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        // compute outside the lock; a concurrent miss on the same key just computes twice
+        misses.incrementAndGet();
+        SimulationResult r = sim.simulateDay(driverId, date, toleranceMinutes, lookaheadMinutes, hexRingK, options);
+        if (r.notes().contains(SimulationService.SCORES_UNAVAILABLE)) {
+            uncached.incrementAndGet();
+            return r;
+        }
+        synchronized (entries) {
+            if (generation == gen) entries.put(key, r);
+        }
+        return r;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    @EventListener
+    public void onJobsImported(JobsImportedEvent e) { invalidateAll(); }
+
+    @EventListener
+    public void onSnapshotRefreshed(JobsSnapshotRefreshedEvent e) { invalidateAll(); }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) { size = entries.size(); }
+        return new Stats(hits.get(), misses.get(), evictions.get(), uncached.get(), size, maxEntries);
+    }
+}
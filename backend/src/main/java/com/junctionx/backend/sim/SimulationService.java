@@ -16,6 +16,7 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,8 +30,17 @@ public class SimulationService {
     private final int lookaheadMinutesDefault;
     private final int toleranceMinutesDefault;
     private final int hexRingKDefault;
+    private final ClockMode clockModeDefault;
+    private final PlannerMode plannerDefault;
+    private final int beamWidthDefault;
+    private final int beamDepthDefault;
+    private final int budgetMsDefault;
+
+    /** Note on a result that fell back to unscored picks because the model could not be reached. */
+    static final String SCORES_UNAVAILABLE = "Scores unavailable; fell back to earliest candidate.";
 
     private static final double REST_THRESHOLD_MIN = 30.0;
+    private static final int PRESCORE_CHUNK = 1000;
     private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
 
     public SimulationService(JobsReadRepository jobs,
@@ -39,7 +49,12 @@ public class SimulationService {
                              H3Util h3,
                              @Value("${simulation.lookahead-minutes:30}") int lookahead,
                              @Value("${simulation.tolerance-minutes:5}") int tolerance,
-                             @Value("${simulation.hex-ring-k:2}") int hexK) {
+                             @Value("${simulation.hex-ring-k:2}") int hexK,
+                             @Value("${simulation.clock-mode:STEP}") ClockMode clockMode,
+                             @Value("${simulation.planner:GREEDY}") PlannerMode planner,
+                             @Value("${simulation.beam.width:4}") int beamWidth,
+                             @Value("${simulation.beam.depth:3}") int beamDepth,
+                             @Value("${simulation.beam.budget-ms:2000}") int budgetMs) {
         this.jobs = jobs;
         this.baselineService = baselineService;
         this.model = model;
@@ -47,6 +62,11 @@ public class SimulationService {
         this.lookaheadMinutesDefault = lookahead;
         this.toleranceMinutesDefault = tolerance;
         this.hexRingKDefault = hexK;
+        this.clockModeDefault = clockMode;
+        this.plannerDefault = planner;
+        this.beamWidthDefault = beamWidth;
+        this.beamDepthDefault = beamDepth;
+        this.budgetMsDefault = budgetMs;
     }
 
     /** Build an alternative day that reaches ~ the same drive minutes as baseline. */
@@ -55,25 +75,78 @@ public class SimulationService {
                                         Integer toleranceMinutes,
                                         Integer lookaheadMinutes,
                                         Integer hexRingK) {
+        return simulateDay(driverId, date, toleranceMinutes, lookaheadMinutes, hexRingK, SimOptions.DEFAULTS);
+    }
+
+    /** Same as above with explicit clock/planner options; null fields use the simulation.* defaults. */
+    public SimulationResult simulateDay(String driverId,
+                                        LocalDate date,
+                                        Integer toleranceMinutes,
+                                        Integer lookaheadMinutes,
+                                        Integer hexRingK,
+                                        SimOptions options) {
+        return simulateDay(driverId, date, toleranceMinutes, lookaheadMinutes, hexRingK, options, SimulationListener.NONE);
+    }
+
+    /** Same as above, reporting each timeline event to {@code listener} as soon as it is final. */
+    public SimulationResult simulateDay(String driverId,
+                                        LocalDate date,
+                                        Integer toleranceMinutes,
+                                        Integer lookaheadMinutes,
+                                        Integer hexRingK,
+                                        SimOptions options,
+                                        SimulationListener listener) {
 
         // 1) Baseline targets/state
         BaselineMetrics base = baselineService.compute(driverId, date);
+        if (!hasBaseline(base)) return noBaseline(base);
+
+        // One city-day read up front; every window below is answered from memory
+        final int laMin = lookaheadOrDefault(lookaheadMinutes);
+        CityDayTripIndex index = loadIndex(Integer.parseInt(base.cityId()), date, base, laMin);
+
+        return simulate(base, index, null, new HashSet<>(), toleranceMinutes, lookaheadMinutes, hexRingK, options,
+                Perturbation.NONE, listener);
+    }
+
+    /**
+     * Runs the planner for one driver against a preloaded trip snapshot.
+     * {@code claimed} holds ride ids already taken and gets the driver's own picks; callers pass a
+     * private set (see {@link RegionSimulationService} for how region runs and city sweeps settle
+     * contested rides).
+     * {@code scores} optionally carries model scores for the snapshot's rides (see {@link #prescore});
+     * null means windows are scored on demand.
+     * {@code perturbation} hides trips and stretches durations for Monte Carlo replicas.
+     * {@code listener} sees each event once the iteration that produced it is done.
+     */
+    SimulationResult simulate(BaselineMetrics base,
+                              CityDayTripIndex index,
+                              Map<String, Double> scores,
+                              Set<String> claimed,
+                              Integer toleranceMinutes,
+                              Integer lookaheadMinutes,
+                              Integer hexRingK,
+                              SimOptions options,
+                              Perturbation perturbation,
+                              SimulationListener listener) {
+
+        if (!hasBaseline(base)) return noBaseline(base);
         double targetDrive = base.driveMins();
-        if (base.cityId() == null || base.startHex() == null || targetDrive <= 0) {
-            return new SimulationResult(base, new SimMetrics(0,0,0,0,0), List.of(), List.of("No baseline trips."));
-        }
 
         // --- Clamp tolerance so we don't "early-stop" at time 0 when tol >= targetDrive
-        final int requestedTol = Optional.ofNullable(toleranceMinutes).orElse(toleranceMinutesDefault);
+        final int requestedTol = toleranceOrDefault(toleranceMinutes);
         final int tolMax = Math.max(0, (int) Math.floor(Math.max(0.0, targetDrive - 1.0))); // e.g., target 8 -> tolMax 7
         final int tol = Math.min(Math.max(0, requestedTol), tolMax);
 
-        final int laMin = Optional.ofNullable(lookaheadMinutes).orElse(lookaheadMinutesDefault);
-        final int k     = Optional.ofNullable(hexRingK).orElse(hexRingKDefault);
+        final int laMin = lookaheadOrDefault(lookaheadMinutes);
+        final int k     = hexRingKOrDefault(hexRingK);
+        final SimOptions opts = Optional.ofNullable(options).orElse(SimOptions.DEFAULTS);
+        final ClockMode clock = Optional.ofNullable(opts.clock()).orElse(clockModeDefault);
+        final PlannerMode planner = Optional.ofNullable(opts.planner()).orElse(plannerDefault);
 
         // 2) Sim state
         OffsetDateTime time = base.shiftStart();
-        String currHex = base.startHex();
+        long currHex = base.startH3();
         int cityIdInt = Integer.parseInt(base.cityId());
 
         double drive=0, earn=0, idle=0, rest=0;
@@ -81,28 +154,66 @@ public class SimulationService {
 
         List<TimelineEvent> timeline = new ArrayList<>();
         List<String> notes = new ArrayList<>();
-        Set<String> consumed = new HashSet<>();
 
         if (requestedTol > tol) {
             notes.add("Tolerance clamped from " + requestedTol + " to " + tol + " (baseline drive " + targetDrive + " min).");
         }
 
+        // Caller-supplied scores, or for the beam planner the whole snapshot scored once,
+        // so lookahead is pure in-memory work
+        Map<String, Double> prescored = index != null ? scores : null;
+        BeamPlanner beam = null;
+        long deadline = 0;
+        if (planner == PlannerMode.BEAM && index != null) {
+            if (prescored == null) prescored = prescore(index);
+            // The budget is for planning; scoring the snapshot is bounded by the model client's timeouts
+            deadline = System.nanoTime()
+                    + Optional.ofNullable(opts.budgetMs()).orElse(budgetMsDefault) * 1_000_000L;
+            Map<Long, long[]> rings = new ConcurrentHashMap<>();
+            beam = new BeamPlanner(index, prescored,
+                    hex -> rings.computeIfAbsent(hex, x -> h3.kRing(x, k)),
+                    perturbation,
+                    laMin,
+                    Optional.ofNullable(opts.beamWidth()).orElse(beamWidthDefault),
+                    Optional.ofNullable(opts.beamDepth()).orElse(beamDepthDefault));
+        }
+        boolean budgetNoted = false;
+        int emitted = 0;
+
         // 3) Main loop — stop when within tolerance
         while (drive < (targetDrive - tol)) {
+            // Last iteration's events can no longer be reverted → hand them out
+            emitted = flush(listener, timeline, emitted, new SimMetrics(drive, earn, idle, rest, tripsCount));
+            if (listener.cancelled()) {
+                notes.add("Cancelled by caller.");
+                break;
+            }
+
             OffsetDateTime windowEnd = time.plusMinutes(laMin);
 
             // Spatial filter via H3 k-ring
-            List<String> pickupSet = h3.kRings(currHex, k);
+            long[] pickupSet = h3.kRing(currHex, k);
 
-            // Time+space candidates; never reuse consumed
-            List<TripDTO> cand = jobs.findWindowedCandidates(cityIdInt, time, windowEnd, pickupSet)
-                    .stream()
-                    .filter(t -> !consumed.contains(t.rideId()))
+            // Time+space candidates; never reuse claimed (or trips this replica hides)
+            List<TripDTO> window = index != null && index.covers(time, windowEnd)
+                    ? index.findWindowedCandidates(time, windowEnd, pickupSet)
+                    : jobs.findWindowedCandidates(cityIdInt, time, windowEnd, pickupSet);
+            List<TripDTO> cand = window.stream()
+                    .filter(t -> !claimed.contains(t.rideId()) && perturbation.available(t))
                     .collect(Collectors.toList());
 
             if (cand.isEmpty()) {
-                // Nothing nearby in this window → move time forward a bit
+                // Nothing nearby in this window → move time forward a bit,
+                // or straight to the next trip start in the ring when running event-driven
                 OffsetDateTime next = time.plusMinutes(5);
+                if (clock == ClockMode.NEXT_EVENT && index != null && index.covers(time, time)) {
+                    next = index.earliestStartAtOrAfter(time, pickupSet,
+                            t -> claimed.contains(t.rideId()) || !perturbation.available(t));
+                    if (next == null) {
+                        notes.add("Bailed: no further trips in the hex ring.");
+                        break;
+                    }
+                }
                 if (next.isAfter(base.shiftEnd().plusHours(2))) {
                     notes.add("Bailed: time moved beyond shiftEnd + 2h.");
                     break;
@@ -114,15 +225,31 @@ public class SimulationService {
                 continue;
             }
 
-            // Score each candidate one-by-one and pick the highest
+            // Score the whole window in one round trip and pick the highest
+            Map<String, Double> windowScores = prescored != null && index.covers(time, windowEnd)
+                    ? prescored
+                    : model.scoreRides(cand.stream().map(TripDTO::rideId).toList());
             TripDTO best = cand.get(0);
             double bestScore = Double.NEGATIVE_INFINITY;
             for (TripDTO t : cand) {
-                double s = model.scoreRide(t.rideId()); // reads "rating" or "score"
+                double s = windowScores.getOrDefault(t.rideId(), Double.NEGATIVE_INFINITY); // reads "rating" or "score"
                 if (s > bestScore) { bestScore = s; best = t; }
             }
+
+            // Beam mode: replace the greedy pick with the first trip of the best lookahead plan
+            if (beam != null) {
+                if (System.nanoTime() < deadline) {
+                    TripDTO planned = beam.plan(cand, drive, targetDrive + tol, claimed, deadline);
+                    if (planned != null) best = planned;
+                } else if (!budgetNoted) {
+                    notes.add("Planner budget exhausted; remaining picks are greedy.");
+                    budgetNoted = true;
+                }
+            }
+            // Another driver may have claimed it since the window was read (region runs)
+            if (!claimed.add(best.rideId())) continue;
             if (!Double.isFinite(bestScore)) {
-                notes.add("Scores unavailable; fell back to earliest candidate.");
+                notes.add(SCORES_UNAVAILABLE);
             }
 
             // Pre-trip idle gap
@@ -133,29 +260,32 @@ public class SimulationService {
             }
 
             // Take the trip
-            double d = nz(best.durationMins());
+            double factor = perturbation.durationFactor(best);
+            double d = nz(best.durationMins()) * factor;
+            OffsetDateTime end = factor == 1.0
+                    ? best.endTs()
+                    : best.startTs().plusSeconds(Math.round(d * 60));
             double e = nz(best.fare());
             drive += d;
             earn  += e;
             tripsCount += 1;
 
             timeline.add(new TimelineEvent("trip",
-                    best.startTs(), best.endTs(),
-                    best.pickupHexId9(), best.dropoffHexId9(),
+                    best.startTs(), end,
+                    best.pickupH3(), best.dropoffH3(),
                     best.rideId(), e));
 
             // Update state
-            time = best.endTs();
-            currHex = best.dropoffHexId9();
-            consumed.add(best.rideId());
+            time = end;
+            currHex = best.dropoffH3();
 
             // Overshoot guard: if we exceed target + tol, revert last trip and nudge time
             if (drive > (targetDrive + tol)) {
                 TimelineEvent last = timeline.remove(timeline.size()-1);
                 drive -= d; earn -= e; tripsCount -= 1;
                 time = last.start();
-                currHex = last.fromHex();
-                consumed.remove(best.rideId());
+                currHex = last.fromH3();
+                claimed.remove(best.rideId());
                 notes.add("Rejected last trip (overshoot beyond tolerance).");
                 OffsetDateTime next = time.plusMinutes(5);
                 long gapC = addIdleEvent(timeline, currHex, time, next);
@@ -166,12 +296,79 @@ public class SimulationService {
         }
 
         SimMetrics sim = new SimMetrics(drive, earn, idle, rest, tripsCount);
+        flush(listener, timeline, emitted, sim);
         return new SimulationResult(base, sim, timeline, notes);
     }
 
+    /**
+     * Loads the city's trips once for the simulated day. The range runs past midnight far enough
+     * to cover the last window the loop can open (shiftEnd + 2h + lookahead); anything beyond
+     * still falls back to the DB.
+     */
+    CityDayTripIndex loadIndex(int cityId, LocalDate date, BaselineMetrics base, int laMin) {
+        OffsetDateTime from = date.atStartOfDay(ZONE).toOffsetDateTime();
+        OffsetDateTime to = indexEnd(date, base.shiftEnd(), laMin);
+        if (base.shiftStart().isBefore(from)) from = base.shiftStart();
+        return CityDayTripIndex.build(jobs.findCityTripsForDay(cityId, from, to), from, to);
+    }
+
+    /** End of the snapshot range needed for shifts ending at {@code latestShiftEnd}. */
+    OffsetDateTime indexEnd(LocalDate date, OffsetDateTime latestShiftEnd, int laMin) {
+        OffsetDateTime dayEnd = date.plusDays(1).atStartOfDay(ZONE).toOffsetDateTime();
+        OffsetDateTime horizon = latestShiftEnd.plusHours(2).plusMinutes(laMin + 1L);
+        return horizon.isAfter(dayEnd) ? horizon : dayEnd;
+    }
+
+    /** {@code options} with every null field replaced by its simulation.* default. */
+    SimOptions resolve(SimOptions options) {
+        SimOptions o = Optional.ofNullable(options).orElse(SimOptions.DEFAULTS);
+        return new SimOptions(
+                Optional.ofNullable(o.clock()).orElse(clockModeDefault),
+                Optional.ofNullable(o.planner()).orElse(plannerDefault),
+                Optional.ofNullable(o.beamWidth()).orElse(beamWidthDefault),
+                Optional.ofNullable(o.beamDepth()).orElse(beamDepthDefault),
+                Optional.ofNullable(o.budgetMs()).orElse(budgetMsDefault));
+    }
+
+    int lookaheadOrDefault(Integer lookaheadMinutes) {
+        return Optional.ofNullable(lookaheadMinutes).orElse(lookaheadMinutesDefault);
+    }
+
+    int toleranceOrDefault(Integer toleranceMinutes) {
+        return Optional.ofNullable(toleranceMinutes).orElse(toleranceMinutesDefault);
+    }
+
+    int hexRingKOrDefault(Integer hexRingK) {
+        return Optional.ofNullable(hexRingK).orElse(hexRingKDefault);
+    }
+
+    static boolean hasBaseline(BaselineMetrics base) {
+        return base.cityId() != null && base.startH3() != 0L && base.driveMins() > 0;
+    }
+
+    private static SimulationResult noBaseline(BaselineMetrics base) {
+        return new SimulationResult(base, new SimMetrics(0,0,0,0,0), List.of(), List.of("No baseline trips."));
+    }
+
+    /** Scores every trip in the snapshot, in chunks so one request body stays reasonable. */
+    Map<String, Double> prescore(CityDayTripIndex index) {
+        List<String> ids = index.rideIds();
+        Map<String, Double> out = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i += PRESCORE_CHUNK) {
+            out.putAll(model.scoreRides(ids.subList(i, Math.min(ids.size(), i + PRESCORE_CHUNK))));
+        }
+        return out;
+    }
+
+    /** Passes timeline[from..] to the listener and returns the new emitted count. */
+    private static int flush(SimulationListener listener, List<TimelineEvent> timeline, int from, SimMetrics running) {
+        for (int i = from; i < timeline.size(); i++) listener.onEvent(timeline.get(i), running);
+        return timeline.size();
+    }
+
     /** Adds an idle/rest event and returns the gap minutes so caller can update metrics. */
     private long addIdleEvent(List<TimelineEvent> timeline,
-                              String hex,
+                              long hex,
                               OffsetDateTime from,
                               OffsetDateTime to) {
         long gap = Duration.between(from, to).toMinutes();
@@ -1,5 +1,9 @@
 package com.junctionx.backend.sim.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.junctionx.backend.sim.util.H3Util;
+
 import java.time.OffsetDateTime;
 
 public record BaselineMetrics(
@@ -10,6 +14,9 @@ public record BaselineMetrics(
         String cityId,
         OffsetDateTime shiftStart,
         OffsetDateTime shiftEnd,
-        String startHex,
+        @JsonIgnore long startH3, // 0 when there are no trips
         int tripsCount   // NEW
-) {}
+) {
+    @JsonProperty("startHex")
+    public String startHex() { return H3Util.toAddress(startH3); }
+}
@@ -6,4 +6,9 @@ public record SimMetrics(
         double idleMins,
         double restMins,
         int tripsCount
-) {}
+) {
+    /** The baseline's totals in the same shape, for diffing against a simulated day. */
+    public static SimMetrics of(BaselineMetrics b) {
+        return new SimMetrics(b.driveMins(), b.earnings(), b.idleMins(), b.restMins(), b.tripsCount());
+    }
+}
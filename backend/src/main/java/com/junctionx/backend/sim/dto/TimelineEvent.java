@@ -1,13 +1,23 @@
 package com.junctionx.backend.sim.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.junctionx.backend.sim.util.H3Util;
+
 import java.time.OffsetDateTime;
 
 public record TimelineEvent(
         String type,
         OffsetDateTime start,
         OffsetDateTime end,
-        String fromHex,
-        String toHex,
+        @JsonIgnore long fromH3,
+        @JsonIgnore long toH3,
         String rideId,
         Double earnings
-) {}
+) {
+    @JsonProperty("fromHex")
+    public String fromHex() { return H3Util.toAddress(fromH3); }
+
+    @JsonProperty("toHex")
+    public String toHex() { return H3Util.toAddress(toH3); }
+}
@@ -0,0 +1,7 @@
+package com.junctionx.backend.sim.dto;
+
+/** One streamed timeline step plus the simulated totals after it. */
+public record TimelineProgress(
+        TimelineEvent event,
+        SimMetrics running
+) {}
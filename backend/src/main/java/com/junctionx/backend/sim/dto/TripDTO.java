@@ -1,15 +1,26 @@
 package com.junctionx.backend.sim.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.junctionx.backend.sim.util.H3Util;
+
 import java.time.OffsetDateTime;
 
+/** Pickup/drop cells are H3 indexes (0 = unknown); JSON still shows the hex addresses. */
 public record TripDTO(
         String rideId,
         String driverId,
         String cityId,
-        String pickupHexId9,
-        String dropoffHexId9,
+        @JsonIgnore long pickupH3,
+        @JsonIgnore long dropoffH3,
         OffsetDateTime startTs,
         OffsetDateTime endTs,
         Double durationMins,
         Double fare
-) {}
+) {
+    @JsonProperty("pickupHexId9")
+    public String pickupHexId9() { return H3Util.toAddress(pickupH3); }
+
+    @JsonProperty("dropoffHexId9")
+    public String dropoffHexId9() { return H3Util.toAddress(dropoffH3); }
+}
@@ -1,14 +1,18 @@
 package com.junctionx.backend.sim.ml;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class ModelClient {
@@ -16,21 +20,40 @@ public class ModelClient {
     private final RestTemplate http;
     private final String baseUrl;
     private final ConcurrentHashMap<String, Double> cache = new ConcurrentHashMap<>();
+    private final String modelName;
+    private final AtomicLong generation = new AtomicLong();
+    private final List<Runnable> clearListeners = new CopyOnWriteArrayList<>();
+    private final ScoreStore store;
 
+    public ModelClient(RestTemplateBuilder builder, String baseUrl, String modelName) {
+        this(builder, baseUrl, modelName, null);
+    }
+
+    /** {@code store} may be null (e.g. backend-bench); every score then comes over HTTP. */
+    @Autowired
     public ModelClient(RestTemplateBuilder builder,
-                       @Value("${ml.base-url:http://127.0.0.1:8000/prediction/}") String baseUrl) {
+                       @Value("${ml.base-url:http://127.0.0.1:8000/prediction/}") String baseUrl,
+                       @Value("${ml.model-version:default}") String modelName,
+                       ScoreStore store) {
         this.http = builder
                 .setConnectTimeout(Duration.ofSeconds(2))
                 .setReadTimeout(Duration.ofSeconds(3))
                 .build();
         // prefer IPv4 loopback to avoid the IPv6 first-attempt refusal log noise
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl : (baseUrl + "/");
+        this.modelName = modelName;
+        this.store = store;
+        // new scores in the store invalidate everything derived from the old ones
+        if (store != null) store.addReloadListener(this::clearCache);
     }
 
-    /** Returns a finite score; NEGATIVE_INFINITY if unavailable. */
+    /** Returns a finite score; NEGATIVE_INFINITY if unavailable. The local ScoreStore is asked first. */
     public double scoreRide(String rideId) {
         if (rideId == null || rideId.isBlank()) return Double.NEGATIVE_INFINITY;
 
+        double local = local(rideId);
+        if (!Double.isNaN(local)) return local;
+
         Double cached = cache.get(rideId);
         if (cached != null) return cached;
 
@@ -46,8 +69,64 @@ public class ModelClient {
         }
     }
 
+    /**
+     * Scores many rides with one POST to {baseUrl}batch. Cached ids are not re-sent and
+     * bulk results fill the same per-id cache. Every requested id is present in the result;
+     * NEGATIVE_INFINITY marks an unavailable score. Falls back to per-id GETs only if the
+     * ML server has no batch endpoint (404/405); any other failure leaves the batch unscored.
+     */
+    public Map<String, Double> scoreRides(Collection<String> rideIds) {
+        Map<String, Double> out = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : rideIds) {
+            if (id == null || id.isBlank()) continue;
+            if (out.containsKey(id)) continue;
+            double local = local(id);
+            Double cached = Double.isNaN(local) ? cache.get(id) : Double.valueOf(local);
+            if (cached != null) {
+                out.put(id, cached);
+            } else {
+                out.put(id, Double.NEGATIVE_INFINITY);
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) return out;
+
+        try {
+            ResponseEntity<Map> resp = http.postForEntity(baseUrl + "batch", Map.of("ride_ids", missing), Map.class);
+            Map body = resp.getBody();
+            Object preds = body == null ? null : body.get("predictions");
+            if (preds instanceof List<?> rows) {
+                for (Object row : rows) {
+                    if (!(row instanceof Map<?,?> m)) continue;
+                    Object id = m.get("ride_id");
+                    if (id == null || !out.containsKey(id.toString())) continue;
+                    double s = extractValue(m);
+                    if (Double.isFinite(s)) {
+                        cache.putIfAbsent(id.toString(), s);
+                        out.put(id.toString(), s);
+                    }
+                }
+            }
+        } catch (HttpClientErrorException e) {
+            // older ML server without /prediction/batch: one GET per id
+            if (e.getStatusCode().value() == 404 || e.getStatusCode().value() == 405) {
+                for (String id : missing) out.put(id, scoreRide(id));
+            }
+        } catch (Exception e) {
+            // timeout, 5xx, refused: the server is struggling, don't follow up with a GET per id
+        }
+        return out;
+    }
+
+    // Score store lookup; NaN when absent or there is no store
+    private double local(String rideId) {
+        return store == null ? Double.NaN : store.score(rideId);
+    }
+
+    // package-private for backend-bench (ExtractValueBenchmark)
     @SuppressWarnings("unchecked")
-    private double extractValue(Map body) {
+    double extractValue(Map body) {
         if (body == null) return Double.NEGATIVE_INFINITY;
 
         // Accept either "rating" or "score" at top level
@@ -85,5 +164,18 @@ public class ModelClient {
         return Double.NEGATIVE_INFINITY;
     }
 
-    public void clearCache() { cache.clear(); }
+    /**
+     * Identifies the scores currently served: ml.model-version plus a generation that moves on
+     * every clearCache(), so results computed from older scores never match again.
+     */
+    public String modelVersion() { return modelName + "#" + generation.get(); }
+
+    /** Runs after every clearCache(), e.g. to drop results derived from old scores. */
+    public void addClearListener(Runnable listener) { clearListeners.add(listener); }
+
+    public void clearCache() {
+        cache.clear();
+        generation.incrementAndGet();
+        clearListeners.forEach(Runnable::run);
+    }
 }
@@ -0,0 +1,145 @@
+package com.junctionx.backend.sim.ml;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Local copy of every score the ML server precomputed, pulled from GET {ml.base-url}export into a
+ * {@link ScoreTable} file. ModelClient asks here first, so the simulation loop scores without
+ * HTTP and keeps scoring while the ML server restarts. The file is reopened on startup and
+ * refreshed every ml.score-store.refresh-ms; a failed refresh keeps the current table.
+ */
+@Component
+public class ScoreStore implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreStore.class);
+
+    /** What is loaded; {@code path} is the configured file. */
+    public record Status(boolean enabled, String path, boolean loaded, int rides, Instant createdAt) {}
+
+    private final RestTemplate http;
+    private final String exportUrl;
+    private final boolean enabled;
+    private final Path path;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile ScoreTable table;
+
+    public ScoreStore(RestTemplateBuilder builder,
+                      @Value("${ml.base-url:http://127.0.0.1:8000/prediction/}") String baseUrl,
+                      @Value("${ml.score-store.enabled:true}") boolean enabled,
+                      @Value("${ml.score-store.path:data/ml-scores.bin}") String path) {
+        this.http = builder
+                .connectTimeout(Duration.ofSeconds(2))
+                .readTimeout(Duration.ofSeconds(60)) // the whole export, not one score
+                .build();
+        this.exportUrl = (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + "export";
+        this.enabled = enabled;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        if (Files.isRegularFile(path)) {
+            try {
+                table = ScoreTable.open(path);
+                log.info("Score store {}: {} rides", path, table.size());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Score store {} unreadable: {}", path, e.toString());
+            }
+        }
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${ml.score-store.refresh-ms:900000}",
+               initialDelayString = "${ml.score-store.refresh-ms:900000}")
+    public void refresh() {
+        if (enabled) reload();
+    }
+
+    /** The ride's precomputed score, or NaN if it is not in the store (or the store is off). */
+    public double score(String rideId) {
+        ScoreTable t = table;
+        return t == null ? Double.NaN : t.get(rideId);
+    }
+
+    /** Runs after a reload that changed any score, e.g. to drop results derived from old ones. */
+    public void addReloadListener(Runnable listener) { reloadListeners.add(listener); }
+
+    /** Pulls the export and swaps the new table in; keeps the current one if the ML server is down. */
+    public Status reload() {
+        long t0 = System.nanoTime();
+        try {
+            ScoreTable.Writer w = http.execute(exportUrl, HttpMethod.GET, null, resp -> {
+                ScoreTable.Writer out = new ScoreTable.Writer();
+                try (BufferedReader r = new BufferedReader(new InputStreamReader(resp.getBody(), StandardCharsets.UTF_8))) {
+                    r.readLine(); // ride_id,rating
+                    for (String line; (line = r.readLine()) != null; ) {
+                        int comma = line.lastIndexOf(',');
+                        if (comma <= 0 || comma == line.length() - 1) continue; // no rating (NaN)
+                        out.add(unquote(line.substring(0, comma)), Double.parseDouble(line.substring(comma + 1)));
+                    }
+                }
+                return out;
+            });
+
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            int dropped;
+            try {
+                dropped = w.write(tmp);
+                // Readers keep their mapping of the old file; the rename only affects the next open
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+
+            ScoreTable previous = table;
+            table = ScoreTable.open(path);
+            log.info("Score store {}: {} rides from {} in {} ms{}", path, table.size(), exportUrl,
+                    (System.nanoTime() - t0) / 1_000_000,
+                    dropped == 0 ? "" : " (" + dropped + " ambiguous keys left to the ML server)");
+            if (previous == null || previous.checksum() != table.checksum()) {
+                reloadListeners.forEach(Runnable::run);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Score store refresh from {} failed, {}: {}", exportUrl,
+                    table == null ? "scoring over HTTP" : "keeping " + table.size() + " rides", e.toString());
+        }
+        return status();
+    }
+
+    public Status status() {
+        ScoreTable t = table;
+        return t == null
+                ? new Status(enabled, path.toString(), false, 0, null)
+                : new Status(enabled, path.toString(), true, t.size(), t.createdAt());
+    }
+
+    private static String unquote(String s) {
+        return s.length() >= 2 && s.charAt(0) == '"' && s.charAt(s.length() - 1) == '"'
+                ? s.substring(1, s.length() - 1).replace("\"\"", "\"")
+                : s;
+    }
+}
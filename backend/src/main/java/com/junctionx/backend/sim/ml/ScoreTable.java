@@ -0,0 +1,167 @@
+package com.junctionx.backend.sim.ml;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Read-only (ride id -> score) hash table in a memory-mapped file: open addressing with linear
+ * probing over 16-byte (key, score) slots, at most half full. Lookups touch no heap: the ride id
+ * is encoded into a long in place and compared against the mapped keys.
+ *
+ * <p>Keys: an id of up to 8 ASCII characters (e.g. R1234) is its bytes packed into a long, which
+ * is exact and has the top bit clear. Longer or non-ASCII ids use a 63-bit FNV-1a hash with the
+ * top bit set; two such ids hashing alike are both dropped when the table is built, so they are
+ * scored remotely rather than wrongly. 0 marks an empty slot.
+ */
+public final class ScoreTable {
+
+    static final long MAGIC = 0x3145524F43534C4DL; // "MLSCORE1" read as a little-endian long
+    static final int VERSION = 1;
+
+    // header: magic, version, capacity, size, checksum, created-at (longs); slots from 64
+    private static final int H_MAGIC = 0, H_VERSION = 8, H_CAPACITY = 16, H_SIZE = 24, H_CHECKSUM = 32,
+            H_CREATED = 40, SLOTS = 64, SLOT = 16;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private final ByteBuffer slots;
+    private final int mask;
+    private final int shift;
+    private final int size;
+    private final long checksum;
+    private final Instant createdAt;
+
+    private ScoreTable(Path path, ByteBuffer b) {
+        if (b.capacity() < SLOTS || b.getLong(H_MAGIC) != MAGIC || b.getLong(H_VERSION) != VERSION) {
+            throw new IllegalStateException(path + " is not a version " + VERSION + " score table");
+        }
+        int capacity = (int) b.getLong(H_CAPACITY);
+        this.slots = b.slice(SLOTS, capacity * SLOT).order(ByteOrder.LITTLE_ENDIAN);
+        this.mask = capacity - 1;
+        this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        this.size = (int) b.getLong(H_SIZE);
+        this.checksum = b.getLong(H_CHECKSUM);
+        this.createdAt = Instant.ofEpochMilli(b.getLong(H_CREATED));
+    }
+
+    /** Maps the file read-only; the mapping outlives the channel and is released by GC. */
+    public static ScoreTable open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return new ScoreTable(path, buf.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public int size()          { return size; }
+    public Instant createdAt() { return createdAt; }
+
+    /** Order-independent digest of the contents; equal tables have equal checksums. */
+    public long checksum()     { return checksum; }
+
+    /** The ride's score, or NaN if the table does not have it. */
+    public double get(String rideId) {
+        long key = key(rideId);
+        if (key == 0) return Double.NaN;
+        for (int i = slot(key, shift); ; i = (i + 1) & mask) {
+            long k = slots.getLong(i * SLOT);
+            if (k == key) return slots.getDouble(i * SLOT + 8);
+            if (k == 0) return Double.NaN;
+        }
+    }
+
+    static long key(String id) {
+        if (id == null || id.isEmpty()) return 0;
+        int n = id.length();
+        if (n <= 8) {
+            long k = 0;
+            int i = 0;
+            for (; i < n; i++) {
+                char c = id.charAt(i);
+                if (c == 0 || c >= 0x80) break;
+                k = k << 8 | c;
+            }
+            if (i == n) return k; // leading zero bytes encode the length, so this is exact
+        }
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < n; i++) {
+            h = (h ^ id.charAt(i)) * 0x100000001B3L;
+        }
+        return h | Long.MIN_VALUE;
+    }
+
+    private static int slot(long key, int shift) {
+        return (int) ((key * PHI) >>> shift);
+    }
+
+    /** Collects (ride id, score) pairs in primitive arrays and writes them as a table. */
+    static final class Writer {
+
+        private long[] keys = new long[1024];
+        private double[] scores = new double[1024];
+        private int n;
+
+        /** Non-finite scores are skipped; the ride is then scored remotely. */
+        void add(String rideId, double score) {
+            long key = key(rideId);
+            if (key == 0 || !Double.isFinite(score)) return;
+            if (n == keys.length) {
+                keys = Arrays.copyOf(keys, n * 2);
+                scores = Arrays.copyOf(scores, n * 2);
+            }
+            keys[n] = key;
+            scores[n++] = score;
+        }
+
+        int rows() {
+            return n;
+        }
+
+        /** Writes the table to {@code path}, replacing it; returns the number of keys dropped as ambiguous. */
+        int write(Path path) throws IOException {
+            int capacity = Integer.highestOneBit(Math.max(16, n * 2 - 1)) << 1;
+            if ((long) capacity * SLOT > Integer.MAX_VALUE - SLOTS) {
+                throw new IllegalStateException(n + " scores do not fit one mapped table");
+            }
+            int shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            int mask = capacity - 1;
+
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, SLOTS + (long) capacity * SLOT);
+                ByteBuffer b = out.order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer t = b.slice(SLOTS, capacity * SLOT).order(ByteOrder.LITTLE_ENDIAN);
+
+                int size = 0, dropped = 0;
+                for (int r = 0; r < n; r++) {
+                    int i = slot(keys[r], shift);
+                    while (t.getLong(i * SLOT) != 0 && t.getLong(i * SLOT) != keys[r]) i = (i + 1) & mask;
+                    if (t.getLong(i * SLOT) == 0) {
+                        t.putLong(i * SLOT, keys[r]).putDouble(i * SLOT + 8, scores[r]);
+                        size++;
+                    } else if (!Double.isNaN(t.getDouble(i * SLOT + 8))) {
+                        // Ids are unique in the export, so a repeated key is a hash collision
+                        t.putDouble(i * SLOT + 8, Double.NaN);
+                        dropped++;
+                    }
+                }
+
+                long checksum = 0;
+                for (int i = 0; i < capacity; i++) {
+                    long k = t.getLong(i * SLOT);
+                    if (k != 0) checksum += (k ^ Double.doubleToRawLongBits(t.getDouble(i * SLOT + 8))) * PHI;
+                }
+                b.putLong(H_MAGIC, MAGIC).putLong(H_VERSION, VERSION).putLong(H_CAPACITY, capacity)
+                        .putLong(H_SIZE, size - dropped).putLong(H_CHECKSUM, checksum)
+                        .putLong(H_CREATED, System.currentTimeMillis());
+                out.force();
+                return dropped;
+            }
+        }
+    }
+}
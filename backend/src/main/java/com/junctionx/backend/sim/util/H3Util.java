@@ -6,6 +6,10 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.util.*;
 
+/**
+ * H3 helpers. Cells travel through the backend as 64-bit indexes (0 = no cell); the
+ * 15-character hex addresses only exist at the REST boundary, see {@link #toLong}/{@link #toAddress}.
+ */
 @Component
 public class H3Util {
     private final H3Core h3;
@@ -14,12 +18,42 @@ public class H3Util {
         this.h3 = H3Core.newInstance();
     }
 
-    /** Returns center hex + neighbors up to distance k, preserving order without duplicates. */
+    /** Center cell + all cells within grid distance k, center first; empty for 0. */
+    public long[] kRing(long center, int k) {
+        if (center == 0L) return new long[0];
+        List<Long> cells = h3.kRing(center, Math.max(0, k));
+        long[] out = new long[cells.size() + 1];
+        out[0] = center;
+        int n = 1;
+        for (Long c : cells) {
+            if (c != null && c != 0L && c != center) out[n++] = c;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** String form of {@link #kRing(long, int)} for REST callers. */
     public List<String> kRings(String centerHex, int k) {
-        if (centerHex == null || centerHex.isBlank()) return List.of();
-        Set<String> set = new LinkedHashSet<>();
-        set.add(centerHex);
-        for (int i = 1; i <= k; i++) set.addAll(h3.kRing(centerHex, i));
-        return new ArrayList<>(set);
+        long[] cells = kRing(toLong(centerHex), k);
+        List<String> out = new ArrayList<>(cells.length);
+        for (long c : cells) out.add(toAddress(c));
+        return out;
+    }
+
+    /** Cell center as GeoJSON position [lon, lat]; null for 0. */
+    public List<Double> lonLat(long cell) {
+        if (cell == 0L) return null;
+        var c = h3.h3ToGeo(cell);
+        return List.of(c.lng, c.lat);
+    }
+
+    /** Parses an H3 hex address; 0 for null/blank. */
+    public static long toLong(String hex) {
+        if (hex == null || hex.isBlank()) return 0L;
+        return Long.parseUnsignedLong(hex.trim(), 16);
+    }
+
+    /** Hex address of an H3 index (same form H3Core prints); null for 0. */
+    public static String toAddress(long cell) {
+        return cell == 0L ? null : Long.toHexString(cell);
     }
 }
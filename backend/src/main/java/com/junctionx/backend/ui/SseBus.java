@@ -18,6 +18,28 @@ public class SseBus {
         return emitter;
     }
 
+    /**
+     * Opens a private stream for one request (not part of the broadcast set).
+     * {@code onGone} runs once the stream completes, times out or the client drops.
+     */
+    public SseEmitter open(Runnable onGone) {
+        SseEmitter emitter = new SseEmitter(0L); // no timeout
+        emitter.onCompletion(onGone);
+        emitter.onTimeout(onGone);
+        emitter.onError(ex -> onGone.run());
+        return emitter;
+    }
+
+    /** Sends one named event to a single emitter; false if the client is gone. */
+    public boolean send(SseEmitter emitter, String name, Object payload) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload));
+            return true;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
     /** Sends a single "decision" event with the given payload to all clients. */
     public void push(Object payload) {
         List<SseEmitter> dead = new ArrayList<>();
@@ -0,0 +1,27 @@
+package com.junctionx.backend.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PgCopySinkTest {
+
+	@Test
+	void updatesTheColumnsOutsideTheKey() {
+		String sql = PgCopySink.Target.<Object[]>upsert("surge_by_hour", List.of("city_id", "hour", "multiplier"),
+				List.of("city_id", "hour"), r -> r, null).insertSelect();
+
+		assertThat(sql).endsWith("ON CONFLICT (city_id, hour) DO UPDATE SET multiplier = EXCLUDED.multiplier\n"
+				+ "WHERE (surge_by_hour.multiplier) IS DISTINCT FROM (EXCLUDED.multiplier)");
+	}
+
+	@Test
+	void keyOnlyTableSkipsConflictsInsteadOfUpdating() {
+		String sql = PgCopySink.Target.<Object[]>upsert("city_hours", List.of("city_id", "hour"),
+				List.of("city_id", "hour"), r -> r, null).insertSelect();
+
+		assertThat(sql).endsWith("ON CONFLICT (city_id, hour) DO NOTHING");
+	}
+}
@@ -0,0 +1,62 @@
+package com.junctionx.backend.model;
+
+import com.junctionx.backend.repository.HeatmapRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * saveAll on a sequence-keyed entity must go out as JDBC batches: with IDENTITY keys every
+ * row was its own INSERT (ROWS statements); pooled ids plus batch_size 50 need a few dozen.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional // rolled back after the test
+class BatchInsertStatementCountTest {
+
+	private static final int ROWS = 500;
+
+	@Autowired
+	private HeatmapRepository heatmaps;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Test
+	void heatmapSaveAllIsBatched() {
+		String mapId = UUID.randomUUID().toString().substring(0, 16);
+		List<HeatMap> rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			HeatMap h = new HeatMap();
+			h.setMapId(mapId);
+			h.setHexagonId9(String.format("89%014x", i));
+			h.setCityId(1);
+			rows.add(h);
+		}
+
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		heatmaps.saveAll(rows);
+		em.flush();
+
+		assertThat(stats.getEntityInsertCount()).isEqualTo(ROWS);
+		// ~10 sequence calls + ~10 insert batches; unbatched would be >= ROWS
+		assertThat(stats.getPrepareStatementCount()).isLessThan(ROWS / 10);
+	}
+}
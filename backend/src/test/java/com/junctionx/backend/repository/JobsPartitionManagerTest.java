@@ -0,0 +1,115 @@
+package com.junctionx.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against a partitioned jobs table (the test database is converted on the first start):
+ * a city-day read touches one week only, and the heap's guarantees survived the conversion.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "jobs.partitions.migrate=true")
+@Transactional // rolled back after the test, partitions created by maintain() included
+class JobsPartitionManagerTest {
+
+	private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
+
+	@Autowired
+	private JobsPartitionManager partitions;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private String earner;
+	private OffsetDateTime monday;
+
+	@BeforeEach
+	void insertEarner() {
+		earner = "E-" + UUID.randomUUID().toString().substring(0, 8);
+		jdbc.update("""
+				INSERT INTO public.earners (earner_id, earner_type, fuel_type, home_city_id, rating, vehicle_type)
+				VALUES (?, 'DRIVER', 'GAS', 3, 4.9, 'CAR')""", earner);
+		monday = LocalDate.now(ZONE).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+				.atStartOfDay(ZONE).toOffsetDateTime();
+	}
+
+	@Test
+	void cityDayScansOnlyItsWeek() {
+		String plan = String.join("\n", partitions.explainCityDay(3, monday.plusDays(2), monday.plusDays(3)));
+		assertThat(plan).contains(partition(monday));
+		assertThat(plan.replace(partition(monday), "")).doesNotContain("jobs_p").doesNotContain("jobs_default");
+	}
+
+	@Test
+	void jobIdStaysUniqueAcrossWeeks() {
+		job("a", monday.plusHours(9));
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM public.jobs_ids WHERE job_id = ?", Integer.class, id("a")))
+				.isEqualTo(1);
+
+		// same job_id a week later: (job_id, start_time) is new, jobs_ids' key is not
+		assertThatThrownBy(() -> job("a", monday.plusWeeks(1).plusHours(9)))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void keepsTheDriverForeignKeyAndChecks() {
+		assertThat(jdbc.queryForObject("""
+				SELECT count(*) FROM pg_constraint
+				WHERE conrelid = 'public.jobs'::regclass AND contype = 'c'""", Integer.class)).isPositive();
+
+		earner = "no-such-driver";
+		assertThatThrownBy(() -> job("fk", monday.plusHours(9))).isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void maintainMovesStrayRowsOutOfTheDefaultPartition() {
+		OffsetDateTime later = monday.plusWeeks(104).plusHours(9);
+		job("later", later);
+		assertThat(partitionOf(id("later"))).isEqualTo("jobs_default");
+
+		partitions.maintain();
+
+		assertThat(partitionOf(id("later"))).isEqualTo(partition(later));
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM public.jobs_default", Integer.class)).isZero();
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM public.jobs_ids WHERE job_id = ?", Integer.class, id("later")))
+				.isEqualTo(1);
+	}
+
+	private void job(String suffix, OffsetDateTime start) {
+		jdbc.update("""
+				INSERT INTO public.jobs (job_id, driver_id, city_id, start_time, end_time, duration_mins,
+				                         net_earnings, fulfillment_job_status, product, product_type, requester_id)
+				VALUES (?, ?, 3, ?, ?, 20, 10.0, true, 'UberX', 'RIDE', 'R1')""",
+				id(suffix), earner, start, start.plusMinutes(20));
+	}
+
+	private String partitionOf(String jobId) {
+		return jdbc.queryForObject("SELECT tableoid::regclass::text FROM public.jobs WHERE job_id = ?", String.class, jobId);
+	}
+
+	private static String partition(OffsetDateTime t) {
+		LocalDate day = t.atZoneSameInstant(ZONE).toLocalDate();
+		return "jobs_p" + day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).format(DateTimeFormatter.BASIC_ISO_DATE);
+	}
+
+	private String id(String suffix) {
+		return earner + "-" + suffix;
+	}
+}
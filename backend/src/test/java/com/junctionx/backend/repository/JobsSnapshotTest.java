@@ -0,0 +1,161 @@
+package com.junctionx.backend.repository;
+
+import com.junctionx.backend.sim.dto.TripDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Writer -> file -> reader round trip: every query must return what the JobsReadRepository SQL
+ * would for the same rows, including nulls and the [from, to) boundaries.
+ */
+class JobsSnapshotTest {
+
+	private static final OffsetDateTime DAY = OffsetDateTime.of(2026, 10, 12, 0, 0, 0, 0, ZoneOffset.UTC);
+
+	@TempDir
+	Path dir;
+
+	private JobsSnapshot snap;
+
+	@BeforeEach
+	void write() throws IOException {
+		JobsSnapshot.Writer w = new JobsSnapshot.Writer();
+		// (city nulls first, start) order, as EXPORT_SQL sends it
+		w.add("J0", "D1", null, 0, 0, sec(DAY.plusHours(8)), null, null, null);
+		w.add("J1", "D2", 3, 11, 21, sec(DAY.plusHours(9)), sec(DAY.plusHours(9).plusMinutes(20)), 20, 12.5);
+		w.add("J2", "D1", 3, 12, 22, sec(DAY.plusHours(10)), null, null, null);
+		w.add("J3", "D2", 3, 11, 23, sec(DAY.plusHours(10)), sec(DAY.plusHours(11)), 60, 30.0);
+		w.add("J4", "D1", 3, 13, 24, sec(DAY.plusDays(1)), sec(DAY.plusDays(1).plusMinutes(5)), 5, 4.0);
+		w.add("J7", null, 7, 15, 26, sec(DAY.minusHours(1)), null, null, 1.0);
+		w.add("J5", "Dé", 7, 11, 0, sec(DAY.plusHours(7)), sec(DAY.plusHours(7).plusMinutes(10)), 10, 8.0);
+		w.add("J6", "D1", 7, 14, 25, sec(DAY.plusHours(9).plusMinutes(30)), null, 15, null);
+		assertThat(w.rows()).isEqualTo(8);
+
+		Path file = dir.resolve("jobs.snap");
+		w.write(file);
+		snap = JobsSnapshot.open(file);
+	}
+
+	@Test
+	void headerCounts() {
+		assertThat(snap.rows()).isEqualTo(8);
+		assertThat(snap.cities()).isEqualTo(3); // null, 3, 7
+		assertThat(snap.drivers()).isEqualTo(4); // D1, D2, Dé and "" for the null driver
+		assertThat(snap.maxStartEpochSecond()).isEqualTo(sec(DAY.plusDays(1)));
+		assertThat(snap.createdAt()).isNotNull();
+	}
+
+	@Test
+	void cityDayIsStartOrderedAndHalfOpen() {
+		assertThat(ids(snap.cityTrips(3, DAY, DAY.plusDays(1)))).containsExactly("J1", "J2", "J3");
+		assertThat(ids(snap.cityTrips(3, DAY.plusDays(1), DAY.plusDays(2)))).containsExactly("J4");
+		// a sub-second bound still excludes the row at the whole second before it
+		assertThat(ids(snap.cityTrips(3, DAY.plusHours(9).plusNanos(1), DAY.plusDays(1)))).containsExactly("J2", "J3");
+		assertThat(snap.cityTrips(99, DAY, DAY.plusDays(1))).isEmpty();
+		// city_id = NULL matches nothing in SQL either
+		assertThat(snap.cityTrips(null, DAY, DAY.plusDays(1))).isEmpty();
+
+		List<String> seen = new ArrayList<>();
+		snap.forEachCityTrip(7, DAY, DAY.plusDays(1), t -> seen.add(t.rideId()));
+		assertThat(seen).containsExactly("J5", "J6");
+	}
+
+	@Test
+	void columnsAndNullsRoundTrip() {
+		TripDTO full = snap.cityTrips(3, DAY, DAY.plusDays(1)).get(0);
+		assertThat(full.rideId()).isEqualTo("J1");
+		assertThat(full.driverId()).isEqualTo("D2");
+		assertThat(full.cityId()).isEqualTo("3");
+		assertThat(full.pickupH3()).isEqualTo(11);
+		assertThat(full.dropoffH3()).isEqualTo(21);
+		assertThat(full.startTs()).isEqualTo(DAY.plusHours(9));
+		assertThat(full.endTs()).isEqualTo(DAY.plusHours(9).plusMinutes(20));
+		assertThat(full.durationMins()).isEqualTo(20.0);
+		assertThat(full.fare()).isEqualTo(12.5);
+
+		TripDTO empty = snap.driverTrips("D1", DAY, DAY.plusDays(1)).get(0);
+		assertThat(empty.rideId()).isEqualTo("J0");
+		assertThat(empty.cityId()).isNull();
+		assertThat(empty.pickupH3()).isZero();
+		assertThat(empty.endTs()).isNull();
+		assertThat(empty.durationMins()).isNull();
+		assertThat(empty.fare()).isNull();
+
+		TripDTO noDriver = snap.cityTrips(7, DAY.minusDays(1), DAY).get(0);
+		assertThat(noDriver.rideId()).isEqualTo("J7");
+		assertThat(noDriver.driverId()).isEmpty();
+		assertThat(noDriver.startTs()).isEqualTo(DAY.minusHours(1)); // before the file's base second
+	}
+
+	@Test
+	void driverDaySpansCitiesInStartOrder() {
+		assertThat(ids(snap.driverTrips("D1", DAY, DAY.plusDays(1)))).containsExactly("J0", "J6", "J2");
+		assertThat(snap.driverTrips("D1", DAY, DAY.plusDays(1)).get(1).cityId()).isEqualTo("7");
+		assertThat(ids(snap.driverTrips("Dé", DAY, DAY.plusDays(1)))).containsExactly("J5");
+		assertThat(snap.driverTrips("D9", DAY, DAY.plusDays(1))).isEmpty();
+		assertThat(snap.driverTrips(null, DAY, DAY.plusDays(1))).isEmpty();
+	}
+
+	@Test
+	void windowedCandidatesFilterOnPickupWithInclusiveEnd() {
+		// toTs is inclusive: J3 starts exactly at 10:00
+		assertThat(ids(snap.windowedCandidates(3, DAY.plusHours(9), DAY.plusHours(10), new long[]{13, 11})))
+				.containsExactly("J1", "J3");
+		assertThat(ids(snap.windowedCandidates(3, DAY.plusHours(9).plusSeconds(1), DAY.plusHours(10), new long[]{11})))
+				.containsExactly("J3");
+		assertThat(snap.windowedCandidates(3, DAY, DAY.plusDays(1), new long[0])).isEmpty();
+		assertThat(snap.windowedCandidates(null, DAY, DAY.plusDays(1), new long[]{11})).isEmpty();
+	}
+
+	@Test
+	void emptySnapshot() throws IOException {
+		Path file = dir.resolve("empty.snap");
+		new JobsSnapshot.Writer().write(file);
+		JobsSnapshot empty = JobsSnapshot.open(file);
+
+		assertThat(empty.rows()).isZero();
+		assertThat(empty.maxStartEpochSecond()).isEqualTo(Long.MIN_VALUE);
+		assertThat(empty.cityTrips(3, DAY, DAY.plusDays(1))).isEmpty();
+		assertThat(empty.driverTrips("D1", DAY, DAY.plusDays(1))).isEmpty();
+	}
+
+	@Test
+	void writerRejectsUnorderedRows() {
+		JobsSnapshot.Writer byCity = new JobsSnapshot.Writer();
+		byCity.add("A", "D1", 7, 0, 0, 100, null, null, null);
+		assertThatThrownBy(() -> byCity.add("B", "D1", 3, 0, 0, 100, null, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		JobsSnapshot.Writer byStart = new JobsSnapshot.Writer();
+		byStart.add("A", "D1", 3, 0, 0, 200, null, null, null);
+		assertThatThrownBy(() -> byStart.add("B", "D1", 3, 0, 0, 100, null, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsOtherFiles() throws IOException {
+		Path file = dir.resolve("not-a-snapshot");
+		Files.write(file, new byte[256]);
+		assertThatThrownBy(() -> JobsSnapshot.open(file)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static long sec(OffsetDateTime t) {
+		return t.toEpochSecond();
+	}
+
+	private static List<String> ids(List<TripDTO> trips) {
+		return trips.stream().map(TripDTO::rideId).toList();
+	}
+}
@@ -0,0 +1,93 @@
+package com.junctionx.backend.service.impl;
+
+import com.junctionx.backend.dto.GeoJson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks a driver's day page by page through the cursor: every row exactly once, in
+ * (start_time, job_id) order, also when rows sharing a start_time straddle a page boundary.
+ */
+@Tag("integration")
+@SpringBootTest
+@Transactional // rolled back after the test
+class JobsDriverTripsServiceTest {
+
+	private static final ZoneId ZONE = ZoneId.of("Europe/Amsterdam");
+	private static final String DATE = "2026-10-12";
+
+	@Autowired
+	private JobsDriverTripsService trips;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private String earner;
+
+	@BeforeEach
+	void insertDay() {
+		earner = "E-" + UUID.randomUUID().toString().substring(0, 8);
+		jdbc.update("""
+				INSERT INTO public.earners (earner_id, earner_type, fuel_type, home_city_id, rating, vehicle_type)
+				VALUES (?, 'DRIVER', 'GAS', 3, 4.9, 'CAR')""", earner);
+
+		OffsetDateTime day = LocalDate.parse(DATE).atStartOfDay(ZONE).toOffsetDateTime();
+		job("prev-day", day.minusMinutes(1));
+		job("c", day.plusHours(8));
+		// three jobs at 09:00, inserted out of job_id order
+		job("b", day.plusHours(9));
+		job("d", day.plusHours(9));
+		job("a", day.plusHours(9));
+		job("e", day.plusHours(10));
+		job("next-day", day.plusDays(1));
+	}
+
+	@Test
+	void pagesThroughTiesOnStartTime() {
+		List<List<String>> pages = new ArrayList<>();
+		String cursor = null;
+		do {
+			GeoJson.FeatureCollection page = trips.actualTrips(earner, DATE, cursor, 2);
+			pages.add(page.getFeatures().stream().map(f -> (String) f.getProperties().get("tripId")).toList());
+			cursor = page.getNextCursor();
+		} while (cursor != null && pages.size() < 10);
+
+		assertThat(pages).containsExactly(
+				List.of(id("c"), id("a")),
+				List.of(id("b"), id("d")),
+				List.of(id("e")));
+	}
+
+	@Test
+	void lastFullPageHasNoCursor() {
+		GeoJson.FeatureCollection all = trips.actualTrips(earner, DATE, null, 5);
+		assertThat(all.getFeatures()).hasSize(5);
+		assertThat(all.getNextCursor()).isNull();
+	}
+
+	private void job(String suffix, OffsetDateTime start) {
+		jdbc.update("""
+				INSERT INTO public.jobs (job_id, driver_id, city_id, start_time, end_time, duration_mins,
+				                         net_earnings, fulfillment_job_status, product, product_type, requester_id)
+				VALUES (?, ?, 3, ?, ?, 20, 10.0, true, 'UberX', 'RIDE', 'R1')""",
+				id(suffix), earner, start, start.plusMinutes(20));
+	}
+
+	private String id(String suffix) {
+		return earner + "-" + suffix;
+	}
+}
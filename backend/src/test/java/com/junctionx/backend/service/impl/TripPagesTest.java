@@ -0,0 +1,81 @@
+package com.junctionx.backend.service.impl;
+
+import com.junctionx.backend.dto.GeoJson;
+import com.junctionx.backend.repository.JobsReadRepository.TripKey;
+import com.junctionx.backend.sim.dto.TripDTO;
+import com.junctionx.backend.sim.util.H3Util;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TripPagesTest {
+
+	private static final OffsetDateTime START = OffsetDateTime.of(2026, 10, 12, 8, 15, 30, 123_456_000, ZoneOffset.UTC);
+
+	@Test
+	void cursorRoundTripsStartToTheMicrosecondAndTheRideId() {
+		// the id may contain the separator; only the first ':' splits
+		TripKey key = TripPages.decode(TripPages.encode(trip("J:42", START)));
+		assertThat(key).isEqualTo(new TripKey(START, "J:42"));
+
+		OffsetDateTime local = START.withOffsetSameInstant(ZoneOffset.ofHours(2));
+		assertThat(TripPages.decode(TripPages.encode(trip("J1", local))).startTs()).isEqualTo(START);
+	}
+
+	@Test
+	void noCursorIsTheFirstPage() {
+		assertThat(TripPages.decode(null)).isNull();
+		assertThat(TripPages.decode(" ")).isNull();
+	}
+
+	@Test
+	void malformedCursorIs400() {
+		for (String cursor : List.of("not base64!", base64("no-separator"), base64("soon:J1"), base64(":J1"))) {
+			assertThatThrownBy(() -> TripPages.decode(cursor))
+					.as(cursor)
+					.isInstanceOfSatisfying(ResponseStatusException.class,
+							e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+		}
+	}
+
+	@Test
+	void sizeIsDefaultedCappedAndValidated() {
+		assertThat(TripPages.size(null, 200, 1000)).isEqualTo(200);
+		assertThat(TripPages.size(5, 200, 1000)).isEqualTo(5);
+		assertThat(TripPages.size(5000, 200, 1000)).isEqualTo(1000);
+		assertThatThrownBy(() -> TripPages.size(0, 200, 1000)).isInstanceOf(ResponseStatusException.class);
+	}
+
+	@Test
+	void extraRowOnlyBecomesTheNextCursor() throws IOException {
+		H3Util h3 = new H3Util();
+		List<TripDTO> rows = List.of(trip("J1", START), trip("J2", START), trip("J3", START.plusMinutes(1)));
+
+		GeoJson.FeatureCollection page = TripPages.of(rows, 2, "2026-10-12", h3);
+		assertThat(page.getFeatures()).extracting(f -> f.getProperties().get("tripId")).containsExactly("J1", "J2");
+		assertThat(TripPages.decode(page.getNextCursor())).isEqualTo(new TripKey(START, "J2"));
+		assertThat(page.getFeatures().get(0).getGeometry()).isNull(); // no H3 cell
+
+		GeoJson.FeatureCollection last = TripPages.of(rows, 3, "2026-10-12", h3);
+		assertThat(last.getFeatures()).hasSize(3);
+		assertThat(last.getNextCursor()).isNull();
+	}
+
+	private static TripDTO trip(String id, OffsetDateTime start) {
+		return new TripDTO(id, "E1", "3", 0, 0, start, null, null, null);
+	}
+
+	private static String base64(String s) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,115 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.model.JobsImportedEvent;
+import com.junctionx.backend.repository.JobsReadRepository;
+import com.junctionx.backend.sim.dto.SimMetrics;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.dto.TimelineEvent;
+import com.junctionx.backend.sim.dto.TripDTO;
+import com.junctionx.backend.sim.ml.ModelClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegionSimulationServiceTest {
+
+	private static final LocalDate DATE = LocalDate.of(2026, 10, 12);
+	private static final OffsetDateTime DAY = DATE.atStartOfDay(ZoneId.of("Europe/Amsterdam")).toOffsetDateTime();
+
+	private final JobsReadRepository jobs = mock(JobsReadRepository.class);
+	private final SimulationService sim = mock(SimulationService.class);
+	private final ModelClient model = mock(ModelClient.class);
+	private RegionSimulationService region;
+
+	@BeforeEach
+	void setUp() {
+		when(model.modelVersion()).thenReturn("v1");
+		when(sim.toleranceOrDefault(any())).thenReturn(5);
+		when(sim.lookaheadOrDefault(any())).thenReturn(30);
+		when(sim.hexRingKOrDefault(any())).thenReturn(2);
+		when(sim.resolve(any())).thenReturn(new SimOptions(ClockMode.STEP, PlannerMode.GREEDY, 4, 3, 2000));
+		when(sim.indexEnd(any(), any(), anyInt())).thenReturn(DAY.plusDays(1));
+		when(jobs.findCityTripsForDay(eq(3), any(), any())).thenReturn(List.of(
+				trip("A3", "D3"), trip("A2", "D2"), trip("A1", "D1")));
+
+		// every driver wants R1, then R2; whatever is claimed already is off the table
+		when(sim.simulate(any(), any(), any(), any(), any(), any(), any(), any(), any(), any())).thenAnswer(i -> {
+			Set<String> claimed = i.getArgument(3);
+			List<TimelineEvent> timeline = new ArrayList<>();
+			for (String ride : List.of("R1", "R2")) {
+				if (claimed.add(ride)) {
+					timeline.add(new TimelineEvent("trip", DAY, DAY.plusMinutes(10), 0, 0, ride, 1.0));
+					break;
+				}
+			}
+			return new SimulationResult(null, new SimMetrics(0, 0, 0, 0, timeline.size()), timeline, List.of());
+		});
+
+		region = new RegionSimulationService(jobs, new BaselineService(jobs, null), sim, model,
+				new SimpleAsyncTaskExecutor(), 4, 16);
+	}
+
+	@Test
+	void contestedRidesGoToTheLowerDriverIdEveryTime() {
+		for (int run = 0; run < 20; run++) {
+			region.invalidateAll();
+			Map<String, SimulationResult> out = region.simulateCityDay(3, DATE, null, null, null);
+
+			assertThat(out.keySet()).containsExactly("D1", "D2", "D3");
+			assertThat(rides(out.get("D1"))).containsExactly("R1");
+			assertThat(rides(out.get("D2"))).containsExactly("R2");
+			assertThat(rides(out.get("D3"))).isEmpty();
+		}
+	}
+
+	@Test
+	void crowdedCityDayCostsAtMostTwoSimulationsPerDriver() {
+		List<TripDTO> crowd = new ArrayList<>();
+		for (int d = 0; d < 50; d++) crowd.add(trip("A" + d, String.format("D%02d", d)));
+		when(jobs.findCityTripsForDay(eq(4), any(), any())).thenReturn(crowd);
+
+		Map<String, SimulationResult> out = region.simulateCityDay(4, DATE, null, null, null);
+
+		// everyone takes R1 alone; D00 keeps it and the other 49 run once more, in order
+		verify(sim, times(50 + 49)).simulate(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+		assertThat(rides(out.get("D00"))).containsExactly("R1");
+		assertThat(rides(out.get("D01"))).containsExactly("R2");
+		assertThat(rides(out.get("D02"))).isEmpty();
+	}
+
+	@Test
+	void cityDayIsReadOnceUntilTheNextImport() {
+		region.simulateCityDay(3, DATE, null, null, null);
+		region.simulateCityDay(3, DATE, 5, 30, 2); // the same, spelled out
+		verify(jobs, times(1)).findCityTripsForDay(eq(3), any(), any());
+
+		region.onJobsImported(new JobsImportedEvent("test.xlsx"));
+		region.simulateCityDay(3, DATE, null, null, null);
+		verify(jobs, times(2)).findCityTripsForDay(eq(3), any(), any());
+	}
+
+	private static TripDTO trip(String id, String driver) {
+		return new TripDTO(id, driver, "3", 0, 0, DAY.plusHours(9), DAY.plusHours(9).plusMinutes(20), 20.0, 10.0);
+	}
+
+	private static List<String> rides(SimulationResult r) {
+		return r.timeline().stream().map(TimelineEvent::rideId).toList();
+	}
+}
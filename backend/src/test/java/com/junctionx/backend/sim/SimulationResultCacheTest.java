@@ -0,0 +1,101 @@
+package com.junctionx.backend.sim;
+
+import com.junctionx.backend.model.JobsSnapshotRefreshedEvent;
+import com.junctionx.backend.sim.dto.SimulationResult;
+import com.junctionx.backend.sim.ml.ModelClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimulationResultCacheTest {
+
+	private static final LocalDate DATE = LocalDate.of(2026, 10, 12);
+
+	private final SimulationService sim = mock(SimulationService.class);
+	private final ModelClient model = mock(ModelClient.class);
+	private SimulationResultCache cache;
+
+	@BeforeEach
+	void setUp() {
+		when(model.modelVersion()).thenReturn("v1");
+		when(sim.toleranceOrDefault(any())).thenAnswer(i -> i.getArgument(0) == null ? 5 : i.getArgument(0));
+		when(sim.lookaheadOrDefault(any())).thenAnswer(i -> i.getArgument(0) == null ? 30 : i.getArgument(0));
+		when(sim.hexRingKOrDefault(any())).thenAnswer(i -> i.getArgument(0) == null ? 2 : i.getArgument(0));
+		when(sim.resolve(any())).thenAnswer(i -> {
+			SimOptions o = i.getArgument(0) == null ? SimOptions.DEFAULTS : i.getArgument(0);
+			return new SimOptions(o.clock() == null ? ClockMode.STEP : o.clock(),
+					o.planner() == null ? PlannerMode.GREEDY : o.planner(), 4, 3, 2000);
+		});
+		cache = new SimulationResultCache(sim, model, 16);
+	}
+
+	@Test
+	void defaultsAndExplicitDefaultsShareAnEntry() {
+		returns(result());
+		cache.simulateDay("D1", DATE, null, null, null, null);
+		cache.simulateDay("D1", DATE, 5, 30, 2, new SimOptions(ClockMode.STEP, PlannerMode.GREEDY, null, null, null));
+
+		verify(sim, times(1)).simulateDay(any(), any(), any(), any(), any(), any());
+		assertThat(cache.stats().hits()).isEqualTo(1);
+		assertThat(cache.stats().size()).isEqualTo(1);
+	}
+
+	@Test
+	void beamRunsAreNotCached() {
+		returns(result());
+		SimOptions beam = new SimOptions(null, PlannerMode.BEAM, null, null, null);
+		cache.simulateDay("D1", DATE, null, null, null, beam);
+		cache.simulateDay("D1", DATE, null, null, null, beam);
+
+		verify(sim, times(2)).simulateDay(any(), any(), any(), any(), any(), any());
+		assertThat(cache.stats().uncached()).isEqualTo(2);
+		assertThat(cache.stats().size()).isZero();
+	}
+
+	@Test
+	void runsWithoutScoresAreNotCached() {
+		returns(result(SimulationService.SCORES_UNAVAILABLE));
+		cache.simulateDay("D1", DATE, null, null, null, null);
+
+		assertThat(cache.stats().size()).isZero();
+		assertThat(cache.stats().uncached()).isEqualTo(1);
+	}
+
+	@Test
+	void resultComputedAcrossAClearIsDropped() {
+		when(sim.simulateDay(any(), any(), any(), any(), any(), any())).thenAnswer(i -> {
+			cache.invalidateAll(); // e.g. an import finished while this run read the old jobs
+			return result();
+		});
+		cache.simulateDay("D1", DATE, null, null, null, null);
+
+		assertThat(cache.stats().size()).isZero();
+	}
+
+	@Test
+	void newJobsSnapshotClearsTheCache() {
+		returns(result());
+		cache.simulateDay("D1", DATE, null, null, null, null);
+		cache.onSnapshotRefreshed(new JobsSnapshotRefreshedEvent(10));
+		cache.simulateDay("D1", DATE, null, null, null, null);
+
+		verify(sim, times(2)).simulateDay(any(), any(), any(), any(), any(), any());
+	}
+
+	private void returns(SimulationResult r) {
+		when(sim.simulateDay(any(), any(), any(), any(), any(), any())).thenReturn(r);
+	}
+
+	private static SimulationResult result(String... notes) {
+		return new SimulationResult(null, null, List.of(), List.of(notes));
+	}
+}
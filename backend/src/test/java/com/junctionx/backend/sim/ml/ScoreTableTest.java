@@ -0,0 +1,119 @@
+package com.junctionx.backend.sim.ml;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoreTableTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void shortIdsArePackedExactlyAndLongIdsHashed() {
+		assertThat(ScoreTable.key("R1234")).isEqualTo(0x5231323334L);
+		assertThat(ScoreTable.key("12345678")).isPositive();
+		// a leading zero byte is not the empty string: "\0A" is not packed like "A"
+		assertThat(ScoreTable.key("\0A")).isNegative();
+		assertThat(ScoreTable.key("123456789")).isNegative();
+		assertThat(ScoreTable.key("Rü")).isNegative();
+		assertThat(ScoreTable.key(null)).isZero();
+		assertThat(ScoreTable.key("")).isZero();
+	}
+
+	@Test
+	void roundTripsThousandsOfIdsThroughProbing() throws IOException {
+		ScoreTable.Writer w = new ScoreTable.Writer();
+		for (int i = 0; i < 5_000; i++) {
+			w.add("R" + i, i / 10.0);                         // packed keys
+			w.add("ride-" + i + "-0000-aaaa-bbbb", -i);       // hashed keys
+		}
+		assertThat(w.rows()).isEqualTo(10_000);
+		assertThat(w.write(dir.resolve("t.bin"))).isZero();
+
+		ScoreTable t = ScoreTable.open(dir.resolve("t.bin"));
+		assertThat(t.size()).isEqualTo(10_000);
+		assertThat(t.createdAt()).isNotNull();
+		for (int i = 0; i < 5_000; i++) {
+			assertThat(t.get("R" + i)).isEqualTo(i / 10.0);
+			assertThat(t.get("ride-" + i + "-0000-aaaa-bbbb")).isEqualTo((double) -i);
+		}
+	}
+
+	@Test
+	void missesAndSkippedScoresAreNaN() throws IOException {
+		ScoreTable.Writer w = new ScoreTable.Writer();
+		w.add("R1", 0.5);
+		w.add("R2", Double.NaN);
+		w.add("R3", Double.POSITIVE_INFINITY);
+		w.add("", 1.0);
+		w.add(null, 1.0);
+		assertThat(w.rows()).isEqualTo(1);
+		w.write(dir.resolve("t.bin"));
+
+		ScoreTable t = ScoreTable.open(dir.resolve("t.bin"));
+		assertThat(t.size()).isEqualTo(1);
+		assertThat(t.get("R1")).isEqualTo(0.5);
+		assertThat(t.get("R2")).isNaN();
+		assertThat(t.get("R3")).isNaN();
+		assertThat(t.get("R4")).isNaN();
+		assertThat(t.get(null)).isNaN();
+		assertThat(t.get("")).isNaN();
+	}
+
+	@Test
+	void collidingKeysAreDroppedNotGuessed() throws IOException {
+		// The export has unique ids, so the writer treats a repeated key as a hash collision
+		ScoreTable.Writer w = new ScoreTable.Writer();
+		w.add("ride-with-a-long-id", 1.0);
+		w.add("ride-with-a-long-id", 2.0);
+		w.add("ride-with-a-long-id", 3.0);
+		w.add("R1", 0.5);
+		assertThat(w.write(dir.resolve("t.bin"))).isEqualTo(1);
+
+		ScoreTable t = ScoreTable.open(dir.resolve("t.bin"));
+		assertThat(t.get("ride-with-a-long-id")).isNaN();
+		assertThat(t.get("R1")).isEqualTo(0.5);
+		assertThat(t.size()).isEqualTo(1);
+	}
+
+	@Test
+	void checksumIgnoresOrderButNotScores() throws IOException {
+		ScoreTable.Writer a = new ScoreTable.Writer();
+		a.add("R1", 0.1);
+		a.add("R2", 0.2);
+		a.write(dir.resolve("a.bin"));
+		ScoreTable.Writer b = new ScoreTable.Writer();
+		b.add("R2", 0.2);
+		b.add("R1", 0.1);
+		b.write(dir.resolve("b.bin"));
+		ScoreTable.Writer c = new ScoreTable.Writer();
+		c.add("R1", 0.1);
+		c.add("R2", 0.3);
+		c.write(dir.resolve("c.bin"));
+
+		long checksum = ScoreTable.open(dir.resolve("a.bin")).checksum();
+		assertThat(ScoreTable.open(dir.resolve("b.bin")).checksum()).isEqualTo(checksum);
+		assertThat(ScoreTable.open(dir.resolve("c.bin")).checksum()).isNotEqualTo(checksum);
+	}
+
+	@Test
+	void emptyTableAnswersEveryLookupWithNaN() throws IOException {
+		new ScoreTable.Writer().write(dir.resolve("t.bin"));
+		ScoreTable t = ScoreTable.open(dir.resolve("t.bin"));
+		assertThat(t.size()).isZero();
+		assertThat(t.get("R1")).isNaN();
+	}
+
+	@Test
+	void rejectsOtherFiles() throws IOException {
+		Files.write(dir.resolve("t.bin"), new byte[128]);
+		assertThatThrownBy(() -> ScoreTable.open(dir.resolve("t.bin"))).isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -4,6 +4,8 @@ Simple HTTP server to serve ride rating predictions.
 Endpoints:
 - GET /health -> {status: ok}
 - GET /prediction/<ride_id> -> {ride_id, rating}
+- POST /prediction/batch {ride_ids: [...]} -> {predictions: [{ride_id, rating, source}, ...]}
+- GET /prediction/export -> CSV "ride_id,rating" of every preloaded prediction
 - GET /prediction/top/<n> -> [{ride_id, rating, ...}, ...]
 
 Run (from project root):
@@ -17,6 +19,7 @@ Run (from project root):
 from __future__ import annotations
 
 import argparse
+from concurrent.futures import ThreadPoolExecutor, wait
 from dataclasses import asdict, dataclass
 from pathlib import Path
 from typing import Any, Dict, List, Optional
@@ -25,7 +28,7 @@ import numpy as np
 import pandas as pd
 
 try:
-    from flask import Flask, jsonify, abort
+    from flask import Flask, Response, jsonify, abort
 except Exception as e:  # pragma: no cover
     raise SystemExit("Flask is required. Install with: python3 -m pip install flask")
 
@@ -58,6 +61,12 @@ class ServingState:
 
 STATE: Optional[ServingState] = None
 
+# External feature lookups for /prediction/batch run concurrently and must all finish within
+# the deadline, which stays under the Java client's 3 s read timeout; late ids use Excel rows.
+BATCH_FEATURE_WORKERS = 16
+BATCH_FEATURE_DEADLINE_S = 2.0
+_FEATURE_POOL = ThreadPoolExecutor(max_workers=BATCH_FEATURE_WORKERS, thread_name_prefix="features")
+
 
 def load_state(excel_path: Path, model_path: Path, rides_base: Optional[str]) -> ServingState:
     df = load_and_prepare(str(excel_path))
@@ -106,6 +115,25 @@ def _fetch_external_features(ride_id: str) -> Optional[dict]:
         return None
 
 
+def _fetch_external_features_all(ride_ids: List[str]) -> Dict[str, dict]:
+    """External feature rows for many ids, fetched concurrently within BATCH_FEATURE_DEADLINE_S.
+
+    Ids not found, failed, or still pending at the deadline are left out.
+    """
+    if STATE is None or not STATE.rides_base or requests is None or not ride_ids:
+        return {}
+    futures = {_FEATURE_POOL.submit(_fetch_external_features, rid): rid for rid in ride_ids}
+    done, pending = wait(futures, timeout=BATCH_FEATURE_DEADLINE_S)
+    for f in pending:
+        f.cancel()
+    out: Dict[str, dict] = {}
+    for f in done:
+        data = f.result()
+        if data is not None:
+            out[futures[f]] = data
+    return out
+
+
 @app.route("/health", methods=["GET"])
 def health() -> Any:
     return jsonify({"status": "ok"})
@@ -135,6 +163,64 @@ def predict_one(ride_id: str) -> Any:
     return jsonify({"ride_id": ride_id, "rating": rating, "source": "excel"})
 
 
+@app.route("/prediction/batch", methods=["POST"])
+def predict_batch() -> Any:
+    """Score many rides in one round trip.
+
+    Body: {"ride_ids": ["...", ...]}. Unknown ids are left out of the response,
+    so callers treat a missing entry the same as a 404 from /prediction/<ride_id>.
+    External features (if configured) are fetched concurrently under one deadline and
+    predicted in a single model call; ids whose lookup misses the deadline use Excel rows.
+    """
+    global STATE
+    if STATE is None:
+        abort(503, description="Model not loaded")
+    from flask import request
+    body = request.get_json(silent=True) or {}
+    ride_ids = body.get("ride_ids")
+    if not isinstance(ride_ids, list):
+        abort(400, description="ride_ids must be a list")
+
+    out: List[Dict[str, Any]] = []
+    ext_ids: List[str] = []
+    ext_rows: List[Dict[str, Any]] = []
+    cols = CATEGORICAL_FEATURES + NUMERIC_FEATURES
+    ids = list(dict.fromkeys(str(r) for r in ride_ids))
+    fetched = _fetch_external_features_all(ids)
+    for rid in ids:
+        features = fetched.get(rid)
+        if features is not None:
+            ext_ids.append(rid)
+            ext_rows.append({c: features.get(c) for c in cols})
+            continue
+        idx = STATE.index_by_ride.get(rid)
+        if idx is not None:
+            out.append({"ride_id": rid, "rating": float(STATE.preds[idx]), "source": "excel"})
+
+    if ext_rows:
+        preds = STATE.model.predict(pd.DataFrame(ext_rows, columns=cols))
+        for rid, p in zip(ext_ids, preds):
+            out.append({"ride_id": rid, "rating": float(p), "source": "external"})
+
+    return jsonify({"predictions": out})
+
+
+@app.route("/prediction/export", methods=["GET"])
+def predict_export() -> Any:
+    """Every preloaded prediction as CSV (ride_id,rating), for clients that keep a local copy.
+
+    Only the Excel-backed scores: rides scored from external features (--rides-base) are
+    not included, so such clients should keep asking /prediction/<ride_id> for those.
+    """
+    global STATE
+    if STATE is None:
+        abort(503, description="Model not loaded")
+    ids = list(STATE.index_by_ride.keys())
+    idx = np.fromiter(STATE.index_by_ride.values(), dtype=np.int64, count=len(ids))
+    body = pd.DataFrame({"ride_id": ids, "rating": STATE.preds[idx]}).to_csv(index=False)
+    return Response(body, mimetype="text/csv", headers={"X-Row-Count": str(len(ids))})
+
+
 def _calc_idle_and_rest_minutes(seq: pd.DataFrame) -> Dict[str, float]:
     """Compute idle and rest minutes from a sorted sequence of rides.
 